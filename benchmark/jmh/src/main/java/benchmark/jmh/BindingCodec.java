@@ -0,0 +1,40 @@
+/*
+ * Copyright © 2015 Copyright (c) 2015 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package benchmark.jmh;
+
+import javassist.ClassPool;
+import org.opendaylight.mdsal.binding.dom.codec.gen.impl.StreamWriterGenerator;
+import org.opendaylight.mdsal.binding.dom.codec.impl.BindingNormalizedNodeCodecRegistry;
+import org.opendaylight.mdsal.binding.generator.impl.ModuleInfoBackedContext;
+import org.opendaylight.mdsal.binding.generator.util.BindingRuntimeContext;
+import org.opendaylight.mdsal.binding.generator.util.JavassistUtils;
+import org.opendaylight.mdsal.binding.spec.reflect.BindingReflections;
+
+/**
+ * Creates the binding-to-DOM codec that the binding-aware data broker uses,
+ * for all models on the class path.
+ */
+final class BindingCodec {
+
+    private BindingCodec() {
+        // Utility class
+    }
+
+    static BindingNormalizedNodeCodecRegistry create() {
+        final ModuleInfoBackedContext moduleContext = ModuleInfoBackedContext.create();
+        moduleContext.addModuleInfos(BindingReflections.loadModuleInfos());
+        final BindingRuntimeContext runtimeContext = BindingRuntimeContext.create(moduleContext,
+                moduleContext.tryToCreateSchemaContext().get());
+
+        final BindingNormalizedNodeCodecRegistry registry = new BindingNormalizedNodeCodecRegistry(
+                StreamWriterGenerator.create(JavassistUtils.forClassPool(ClassPool.getDefault())));
+        registry.onBindingRuntimeContextUpdated(runtimeContext);
+        return registry;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright © 2015 Copyright (c) 2015 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package benchmark.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.opendaylight.dsbenchmark.BaListBuilder;
+import org.opendaylight.dsbenchmark.ListBuildOptions;
+import org.opendaylight.mdsal.binding.dom.codec.impl.BindingNormalizedNodeCodecRegistry;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.TestExec;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.OuterList;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the binding-to-DOM conversion that the binding-aware data broker
+ * does for every element a binding-aware writer puts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BindingToDomBenchmark {
+    private static final int OUTER_ELEMENTS = 100;
+
+    @Param({"1", "10", "100"})
+    private int innerElements;
+
+    private BindingNormalizedNodeCodecRegistry codec;
+    private List<InstanceIdentifier<OuterList>> iids;
+    private List<OuterList> elements;
+
+    @Setup
+    public void setup() {
+        codec = BindingCodec.create();
+        iids = new ArrayList<>(OUTER_ELEMENTS);
+        elements = new ArrayList<>(OUTER_ELEMENTS);
+        for (OuterList element : BaListBuilder.buildOuterList(IntStream.range(0, OUTER_ELEMENTS).toArray(),
+                innerElements, ListBuildOptions.DEFAULT)) {
+            iids.add(InstanceIdentifier.create(TestExec.class).child(OuterList.class, element.key()));
+            elements.add(element);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OUTER_ELEMENTS)
+    public void toNormalizedNode(Blackhole bh) {
+        for (int i = 0; i < OUTER_ELEMENTS; i++) {
+            bh.consume(codec.toNormalizedNode(iids.get(i), elements.get(i)));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright © 2015 Copyright (c) 2015 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package benchmark.jmh;
+
+import com.google.common.util.concurrent.Monitor;
+import com.google.common.util.concurrent.Striped;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the locking of the dscrud CREATE and DELETE check-then-write:
+ * one Guava Monitor shared by all callers, as before, against a lock per
+ * outer list id taken from a Striped set of 1024 locks. The time the
+ * check-then-write spends in the data store is modelled by parking for
+ * criticalSectionMicros while the lock is held, and each call uses a
+ * random outer list id. Run with -t 1, -t 8 and -t 32 to see how creates
+ * per second scale with the number of concurrent callers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class CrudLockBenchmark {
+    private static final int OUTER_LIST_IDS = 1000000;
+
+    @Param({"100"})
+    public long criticalSectionMicros;
+
+    private final Monitor crudMonitor = new Monitor();
+    private final Striped<Lock> crudLocks = Striped.lock(1024);
+
+    @Benchmark
+    public void singleMonitor() {
+        crudMonitor.enter();
+        try {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(criticalSectionMicros));
+        } finally {
+            crudMonitor.leave();
+        }
+    }
+
+    @Benchmark
+    public void stripedLocks() {
+        final Lock crudLock = crudLocks.get(ThreadLocalRandom.current().nextInt(OUTER_LIST_IDS));
+        crudLock.lock();
+        try {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(criticalSectionMicros));
+        } finally {
+            crudLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright © 2015 Copyright (c) 2015 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package benchmark.jmh;
+
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.mdsal.binding.dom.codec.impl.BindingNormalizedNodeCodecRegistry;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.TestExec;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.OuterList;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.OuterListKey;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the construction of OuterList element identifiers, the way the
+ * dsbenchmark writers build them and from a pre-built parent, and their
+ * binding-to-DOM conversion.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdentifierBenchmark {
+    private static final int ELEMENTS = 1000;
+    private static final QName OL_ID = QName.create(OuterList.QNAME, "id");
+    private static final InstanceIdentifier<TestExec> TEST_EXEC_IID = InstanceIdentifier.create(TestExec.class);
+    private static final YangInstanceIdentifier OUTER_LIST_YID =
+            YangInstanceIdentifier.of(TestExec.QNAME).node(OuterList.QNAME);
+
+    private BindingNormalizedNodeCodecRegistry codec;
+    private InstanceIdentifier<?>[] iids;
+
+    @Setup
+    public void setup() {
+        codec = BindingCodec.create();
+        iids = new InstanceIdentifier<?>[ELEMENTS];
+        for (int i = 0; i < ELEMENTS; i++) {
+            iids[i] = TEST_EXEC_IID.child(OuterList.class, new OuterListKey(i));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ELEMENTS)
+    public void bindingIid(Blackhole bh) {
+        for (int i = 0; i < ELEMENTS; i++) {
+            bh.consume(InstanceIdentifier.create(TestExec.class).child(OuterList.class, new OuterListKey(i)));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ELEMENTS)
+    public void bindingIidFromParent(Blackhole bh) {
+        for (int i = 0; i < ELEMENTS; i++) {
+            bh.consume(TEST_EXEC_IID.child(OuterList.class, new OuterListKey(i)));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ELEMENTS)
+    public void domYid(Blackhole bh) {
+        for (int i = 0; i < ELEMENTS; i++) {
+            bh.consume(YangInstanceIdentifier.builder().node(TestExec.QNAME).node(OuterList.QNAME)
+                    .nodeWithKey(OuterList.QNAME, OL_ID, i).build());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ELEMENTS)
+    public void domYidFromParent(Blackhole bh) {
+        for (int i = 0; i < ELEMENTS; i++) {
+            bh.consume(OUTER_LIST_YID.node(new NodeIdentifierWithPredicates(OuterList.QNAME, OL_ID, i)));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ELEMENTS)
+    public void bindingToDomIid(Blackhole bh) {
+        for (InstanceIdentifier<?> iid : iids) {
+            bh.consume(codec.toYangInstanceIdentifier(iid));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright © 2015 Copyright (c) 2015 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package benchmark.jmh;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.opendaylight.dsbenchmark.BaListBuilder;
+import org.opendaylight.dsbenchmark.DomListBuilder;
+import org.opendaylight.dsbenchmark.ListBuildOptions;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.OuterList;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the dsbenchmark list builders. Each operation is one OuterList
+ * element with innerElements InnerList entries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListBuilderBenchmark {
+    private static final int OUTER_ELEMENTS = 100;
+
+    @Param({"1", "10", "100"})
+    private int innerElements;
+
+    @Param({"false", "true"})
+    private boolean poolLeafValues;
+
+    private int[] ids;
+    private ListBuildOptions options;
+
+    @Setup
+    public void setup() {
+        ids = IntStream.range(0, OUTER_ELEMENTS).toArray();
+        options = new ListBuildOptions(false, poolLeafValues, 0, 0, 0, null);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OUTER_ELEMENTS)
+    public void buildBaOuterList(Blackhole bh) {
+        for (OuterList element : BaListBuilder.buildOuterList(ids, innerElements, options)) {
+            bh.consume(element);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OUTER_ELEMENTS)
+    public void buildDomOuterList(Blackhole bh) {
+        for (MapEntryNode element : DomListBuilder.buildOuterList(ids, innerElements, options)) {
+            bh.consume(element);
+        }
+    }
+}
@@ -8,38 +8,126 @@
 package org.opendaylight.dsbenchmark;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.OuterList;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.OuterListBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.OuterListKey;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.outer.list.InnerList;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.outer.list.InnerListBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.outer.list.InnerListKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.outer.list.inner.list.ExtraLeaf;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.outer.list.inner.list.ExtraLeafBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.outer.list.inner.list.ExtraLeafKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.outer.list.inner.list.Level1;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.outer.list.inner.list.Level1Builder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.outer.list.inner.list.level1.Level2Builder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.outer.list.inner.list.level1.level2.Level3Builder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.outer.list.inner.list.level1.level2.level3.Level4Builder;
 
 public final class BaListBuilder {
-    static public List<OuterList> buildOuterList(int outerElements, int innerElements) {
-        List<OuterList> outerList = new ArrayList<OuterList>(outerElements);
-        for (int j = 0; j < outerElements; j++) {
-            outerList.add(new OuterListBuilder()
-                                .setId(j)
-                                .setInnerList(buildInnerList(j, innerElements))
-                                .withKey(new OuterListKey(j))
-                                .build());
+    /**
+     * Returns the OuterList elements with the given ids, in the same order.
+     * In streaming mode the elements are generated one at a time while the
+     * returned Iterable is iterated, so they never all live on the heap at once.
+     */
+    static public Iterable<OuterList> buildOuterList(int[] ids, int innerElements, ListBuildOptions options) {
+        final InnerListKey[] keyPool = options.isPoolLeafValues() ? buildKeyPool(innerElements) : null;
+
+        if (options.isStreaming()) {
+            return () -> new Iterator<OuterList>() {
+                private int next = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return next < ids.length;
+                }
+
+                @Override
+                public OuterList next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return buildOuterListEntry(ids[next++], innerElements, keyPool, options);
+                }
+            };
+        }
+
+        List<OuterList> outerList = new ArrayList<OuterList>(ids.length);
+        for (int id : ids) {
+            outerList.add(buildOuterListEntry(id, innerElements, keyPool, options));
         }
         return outerList;
     }
 
-    static private List<InnerList> buildInnerList( int index, int elements ) {
+    static private OuterList buildOuterListEntry(int id, int innerElements, InnerListKey[] keyPool,
+            ListBuildOptions options) {
+        final OuterListBuilder builder = new OuterListBuilder()
+                        .setId(id)
+                        .setInnerList(buildInnerList(id, innerElements, keyPool, options))
+                        .withKey(new OuterListKey(id));
+        if (options.getWriteTxStamp() != null) {
+            builder.setWriteTx(options.getWriteTxStamp().currentTx());
+        }
+        return builder.build();
+    }
+
+    static private InnerListKey[] buildKeyPool(int elements) {
+        InnerListKey[] keyPool = new InnerListKey[elements];
+        for (int i = 0; i < elements; i++) {
+            keyPool[i] = new InnerListKey(i);
+        }
+        return keyPool;
+    }
+
+    static private List<InnerList> buildInnerList( int index, int elements, InnerListKey[] keyPool,
+            ListBuildOptions options ) {
         List<InnerList> innerList = new ArrayList<InnerList>( elements );
 
-        final String itemStr = "Item-" + String.valueOf(index) + "-";
         for (int i = 0; i < elements; i++) {
-            innerList.add(new InnerListBuilder()
-                                .withKey(new InnerListKey(i))
-                                .setName(i)
-                                .setValue(itemStr + String.valueOf(i))
-                                .build());
+            final InnerListKey key = keyPool != null ? keyPool[i] : new InnerListKey(i);
+            final String value = options.itemValue(index, i);
+            final InnerListBuilder builder = new InnerListBuilder()
+                                .withKey(key)
+                                .setName(key.getName())
+                                .setValue(value);
+            if (options.getExtraLeaves() > 0) {
+                builder.setExtraLeaf(buildExtraLeaves(options.getExtraLeaves(), value));
+            }
+            if (options.getNestingDepth() > 0) {
+                builder.setLevel1(buildLevel1(options.getNestingDepth(), value));
+            }
+            innerList.add(builder.build());
         }
         return innerList;
     }
+
+    static private List<ExtraLeaf> buildExtraLeaves(int elements, String value) {
+        List<ExtraLeaf> extraLeaves = new ArrayList<ExtraLeaf>(elements);
+        for (int i = 0; i < elements; i++) {
+            extraLeaves.add(new ExtraLeafBuilder()
+                                .withKey(new ExtraLeafKey(i))
+                                .setIndex(i)
+                                .setValue(value)
+                                .build());
+        }
+        return extraLeaves;
+    }
+
+    static private Level1 buildLevel1(int depth, String value) {
+        final Level1Builder builder = new Level1Builder().setValue(value);
+        if (depth > 1) {
+            final Level2Builder level2 = new Level2Builder().setValue(value);
+            if (depth > 2) {
+                final Level3Builder level3 = new Level3Builder().setValue(value);
+                if (depth > 3) {
+                    level3.setLevel4(new Level4Builder().setValue(value).build());
+                }
+                level2.setLevel3(level3.build());
+            }
+            builder.setLevel2(level2.build());
+        }
+        return builder.build();
+    }
 }
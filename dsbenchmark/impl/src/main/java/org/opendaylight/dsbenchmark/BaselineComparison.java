@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2015 Cisco Systems and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.dsbenchmark;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Compares the ops/sec and p99 transaction latency of the candidate results
+ * of a test with those of its baseline results. A change is a regression
+ * when it is worse than the threshold and significant: the 95% confidence
+ * intervals of the two means do not overlap. With a single result on
+ * either side the interval is empty, and only the threshold applies.
+ */
+public final class BaselineComparison {
+    private final String testKey;
+    private final SummaryStatistics baselineOpsPerSec;
+    private final SummaryStatistics candidateOpsPerSec;
+    private final SummaryStatistics baselineP99;
+    private final SummaryStatistics candidateP99;
+    private final boolean regression;
+
+    private BaselineComparison(String testKey, List<TestResult> baseline, List<TestResult> candidate,
+            int thresholdPercent) {
+        this.testKey = testKey;
+        this.baselineOpsPerSec = summarize(baseline, TestResult::getOpsPerSec);
+        this.candidateOpsPerSec = summarize(candidate, TestResult::getOpsPerSec);
+        this.baselineP99 = summarize(baseline, TestResult::getLatencyP99);
+        this.candidateP99 = summarize(candidate, TestResult::getLatencyP99);
+
+        final boolean slower = change(baselineOpsPerSec, candidateOpsPerSec) <= -thresholdPercent
+                && candidateOpsPerSec.getMean() + candidateOpsPerSec.getConfidenceHalfWidth()
+                        < baselineOpsPerSec.getMean() - baselineOpsPerSec.getConfidenceHalfWidth();
+        final boolean laggier = change(baselineP99, candidateP99) >= thresholdPercent
+                && candidateP99.getMean() - candidateP99.getConfidenceHalfWidth()
+                        > baselineP99.getMean() + baselineP99.getConfidenceHalfWidth();
+        this.regression = slower || laggier;
+    }
+
+    /**
+     * Compares the results of every test that has both baseline and
+     * candidate results. Tests with only one of them are skipped.
+     *
+     * @param thresholdPercent smallest change, in percent, that counts as a regression
+     */
+    public static List<BaselineComparison> compare(List<TestResult> baseline, List<TestResult> candidate,
+            int thresholdPercent) {
+        final Map<String, List<TestResult>> baselineByTest = groupByTest(baseline);
+        final Map<String, List<TestResult>> candidateByTest = groupByTest(candidate);
+
+        final List<BaselineComparison> comparisons = new ArrayList<>();
+        candidateByTest.forEach((testKey, results) -> {
+            final List<TestResult> baselineResults = baselineByTest.get(testKey);
+            if (baselineResults != null) {
+                comparisons.add(new BaselineComparison(testKey, baselineResults, results, thresholdPercent));
+            }
+        });
+        return comparisons;
+    }
+
+    private static Map<String, List<TestResult>> groupByTest(List<TestResult> results) {
+        final Map<String, List<TestResult>> byTest = new LinkedHashMap<>();
+        for (TestResult result : results) {
+            byTest.computeIfAbsent(result.getTestKey(), k -> new ArrayList<>()).add(result);
+        }
+        return byTest;
+    }
+
+    private static SummaryStatistics summarize(List<TestResult> results, ToLongFunction<TestResult> metric) {
+        final long[] values = new long[results.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = metric.applyAsLong(results.get(i));
+        }
+        return new SummaryStatistics(values);
+    }
+
+    /**
+     * Returns the change of the candidate mean relative to the baseline
+     * mean, in percent.
+     */
+    private static double change(SummaryStatistics baseline, SummaryStatistics candidate) {
+        if (baseline.getMean() == 0) {
+            return 0;
+        }
+        return (candidate.getMean() - baseline.getMean()) * 100 / baseline.getMean();
+    }
+
+    public String getTestKey() {
+        return testKey;
+    }
+
+    public SummaryStatistics getBaselineOpsPerSec() {
+        return baselineOpsPerSec;
+    }
+
+    public SummaryStatistics getCandidateOpsPerSec() {
+        return candidateOpsPerSec;
+    }
+
+    public double getOpsPerSecChange() {
+        return change(baselineOpsPerSec, candidateOpsPerSec);
+    }
+
+    public SummaryStatistics getBaselineP99() {
+        return baselineP99;
+    }
+
+    public SummaryStatistics getCandidateP99() {
+        return candidateP99;
+    }
+
+    public double getP99Change() {
+        return change(baselineP99, candidateP99);
+    }
+
+    public boolean isRegression() {
+        return regression;
+    }
+}
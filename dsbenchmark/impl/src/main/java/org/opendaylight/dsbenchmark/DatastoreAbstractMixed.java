@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2015 Cisco Systems and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.dsbenchmark;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.SplittableRandom;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.StartTestInput;
+
+/**
+ * Base class for the MIXED test writers. The test runs against a
+ * pre-populated test-exec container. For each transaction an operation is
+ * picked according to the OperationMix; PUT, MERGE and DELETE transactions
+ * apply the operation to the next writesPerTx OuterList ids and then
+ * submit, while READ reads each of the next writesPerTx ids in its own
+ * read-only transaction. Results are kept per operation type.
+ *
+ * <p>
+ * The OuterList elements are built for every id, including the ones that
+ * end up being read or deleted, so in STREAMING list mode their generation
+ * is part of the measured execution time.
+ *
+ * @param <E> OuterList element type, binding-aware or binding-independent
+ */
+public abstract class DatastoreAbstractMixed<E> extends DatastoreAbstractWriter {
+    private final OperationMix mix;
+    private final Map<StartTestInput.Operation, OperationStats> opStats =
+            new EnumMap<>(StartTestInput.Operation.class);
+    private Iterable<E> list;
+
+    protected DatastoreAbstractMixed(int startId, int outerListElem, int innerListElem, long writesPerTx,
+                                     ListBuildOptions listOptions, OperationMix mix) {
+        super(StartTestInput.Operation.MIXED, startId, outerListElem, innerListElem, writesPerTx, listOptions);
+        this.mix = mix;
+        opStats.put(StartTestInput.Operation.READ, new OperationStats());
+        opStats.put(StartTestInput.Operation.PUT, new OperationStats());
+        opStats.put(StartTestInput.Operation.MERGE, new OperationStats());
+        opStats.put(StartTestInput.Operation.DELETE, new OperationStats());
+    }
+
+    /**
+     * Writes every OuterList element in this writer's slice to the data store.
+     */
+    protected abstract void prepopulate();
+
+    protected abstract Iterable<E> buildList(int[] ids);
+
+    /**
+     * Reads a single OuterList element in its own read-only transaction.
+     *
+     * @return true if the read succeeded; the element may have been deleted
+     *         by the test, so a missing element is not an error
+     */
+    protected abstract boolean read(int id);
+
+    /**
+     * Adds a PUT, MERGE or DELETE to the current write transaction, starting
+     * a new one if needed.
+     */
+    protected abstract void write(StartTestInput.Operation op, int id, E element);
+
+    /**
+     * Submits the current write transaction and waits for the commit.
+     *
+     * @return true if the commit succeeded
+     */
+    protected abstract boolean submit();
+
+    protected void beginExecution() {
+        // Nothing to do by default
+    }
+
+    protected void endExecution() {
+        // Nothing to do by default
+    }
+
+    @Override
+    public void createList() {
+        prepopulate();
+        list = buildList(outerListIds);
+    }
+
+    @Override
+    public void executeList() {
+        // Seed with the startId, so that repeated runs pick the same operations
+        final SplittableRandom random = new SplittableRandom(startId);
+        final Iterator<E> elements = list.iterator();
+        final int opsPerTx = (int) Math.max(1, writesPerTx);
+
+        beginExecution();
+        int pos = 0;
+        while (pos < outerListIds.length) {
+            final StartTestInput.Operation op = mix.next(random);
+            final OperationStats stats = opStats.get(op);
+            final int end = Math.min(outerListIds.length, pos + opsPerTx);
+
+            if (op == StartTestInput.Operation.READ) {
+                for (; pos < end; pos++) {
+                    final long readTime = pacer.acquire();
+                    elements.next();
+                    final boolean ok = read(outerListIds[pos]);
+                    record(stats, ok, 1, System.nanoTime() - readTime);
+                }
+            } else {
+                final int ops = end - pos;
+                final long txStart = pacer.acquire();
+                for (; pos < end; pos++) {
+                    write(op, outerListIds[pos], elements.next());
+                }
+                final boolean ok = submit();
+                record(stats, ok, ops, System.nanoTime() - txStart);
+            }
+        }
+        endExecution();
+    }
+
+    private void record(OperationStats stats, boolean ok, int ops, long latencyNanos) {
+        stats.record(ok, ops, latencyNanos);
+        if (ok) {
+            txLatency.record(latencyNanos);
+            txOk.incrementAndGet();
+        } else {
+            txError.incrementAndGet();
+        }
+    }
+
+    public Map<StartTestInput.Operation, OperationStats> getOperationStats() {
+        return Collections.unmodifiableMap(opStats);
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2015 Cisco Systems and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.dsbenchmark;
+
+import java.util.SplittableRandom;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.StartTestInput;
+
+/**
+ * Base class for the UPDATE test writers. The test runs against a
+ * pre-populated test-exec container. Each transaction covers the next
+ * writesPerTx OuterList ids and, in every one of them, MERGEs a new value
+ * into updatePercent of the InnerList entries, a contiguous run starting at
+ * a random entry. All other data in the store is left unchanged.
+ */
+public abstract class DatastoreAbstractUpdate extends DatastoreAbstractWriter {
+    private final int updatesPerElem;
+    private volatile long updates = 0;
+
+    protected DatastoreAbstractUpdate(int startId, int outerListElem, int innerListElem, long writesPerTx,
+                                      ListBuildOptions listOptions, int updatePercent) {
+        super(StartTestInput.Operation.UPDATE, startId, outerListElem, innerListElem, writesPerTx, listOptions);
+        if (innerListElem < 1) {
+            throw new IllegalArgumentException("An UPDATE test needs at least one InnerList element");
+        }
+        if (updatePercent < 1 || updatePercent > 100) {
+            throw new IllegalArgumentException("Update percentage must be between 1 and 100: " + updatePercent);
+        }
+        // Change at least one entry per OuterList element
+        this.updatesPerElem = Math.max(1, (int) ((long) innerListElem * updatePercent / 100));
+    }
+
+    /**
+     * Writes every OuterList element in this writer's slice to the data store.
+     */
+    protected abstract void prepopulate();
+
+    /**
+     * Adds a MERGE of the given InnerList entry's new value to the current
+     * write transaction, starting a new one if needed.
+     */
+    protected abstract void update(int outerId, int innerId, String value);
+
+    /**
+     * Submits the current write transaction and waits for the commit.
+     *
+     * @return true if the commit succeeded
+     */
+    protected abstract boolean submit();
+
+    protected void beginExecution() {
+        // Nothing to do by default
+    }
+
+    protected void endExecution() {
+        // Nothing to do by default
+    }
+
+    @Override
+    public void createList() {
+        // The new values are generated while the test executes
+        prepopulate();
+    }
+
+    @Override
+    public void executeList() {
+        // Seed with the startId, so that repeated runs change the same entries
+        final SplittableRandom random = new SplittableRandom(startId);
+        final int opsPerTx = (int) Math.max(1, writesPerTx);
+
+        beginExecution();
+        long version = 0;
+        int pos = 0;
+        while (pos < outerListIds.length) {
+            final int end = Math.min(outerListIds.length, pos + opsPerTx);
+            version++;
+            final long txStart = pacer.acquire();
+            for (; pos < end; pos++) {
+                final int id = outerListIds[pos];
+                final int first = random.nextInt(innerListElem);
+                for (int i = 0; i < updatesPerElem; i++) {
+                    final int name = (first + i) % innerListElem;
+                    update(id, name, listOptions.itemValue(id, name, version));
+                }
+                updates += updatesPerElem;
+            }
+
+            if (submit()) {
+                txLatency.record(System.nanoTime() - txStart);
+                txOk.incrementAndGet();
+            } else {
+                txError.incrementAndGet();
+            }
+        }
+        endExecution();
+    }
+
+    /**
+     * Returns the number of InnerList values changed so far.
+     */
+    public long getUpdates() {
+        return updates;
+    }
+}
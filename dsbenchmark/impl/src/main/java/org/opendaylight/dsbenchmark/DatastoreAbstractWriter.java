@@ -8,35 +8,218 @@
 
 package org.opendaylight.dsbenchmark;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.StartTestInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.OuterList;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.outer.list.InnerList;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public abstract class DatastoreAbstractWriter {
+    private static final Logger LOG = LoggerFactory.getLogger(DatastoreAbstractWriter.class);
+    private static final NodeIdentifier INNER_LIST = new NodeIdentifier(InnerList.QNAME);
+    private static final NodeIdentifier IL_NAME = new NodeIdentifier(QName.create(InnerList.QNAME, "name"));
+    private static final NodeIdentifier IL_VALUE = new NodeIdentifier(QName.create(InnerList.QNAME, "value"));
+
+    protected final int startId;
     protected final int outerListElem;
     protected final int innerListElem;
     protected final long writesPerTx;
     protected final StartTestInput.Operation oper;
+    protected final ListBuildOptions listOptions;
 
-    protected int txOk = 0;
-    protected int txError = 0;
+    // Atomic, since commit callbacks update them from other threads, and
+    // the progress of a running test is sampled from yet another one
+    protected final AtomicInteger txOk = new AtomicInteger();
+    protected final AtomicInteger txError = new AtomicInteger();
+    protected final LatencyHistogram txLatency = new LatencyHistogram();
+    protected TxPacer pacer = new TxPacer(0);
+    // OuterList ids in the order in which the test accesses them
+    protected int[] outerListIds;
+    // Data stores the test writes to and deletes from; reads use the first one
+    protected LogicalDatastoreType[] dataStores = { LogicalDatastoreType.CONFIGURATION };
 
 
-    public DatastoreAbstractWriter(StartTestInput.Operation oper,
-                                   int outerListElem, int innerListElem, long writesPerTx) {
+    /**
+     * Creates a writer that operates on the slice of OuterList ids
+     * [startId, startId + outerListElem).
+     */
+    public DatastoreAbstractWriter(StartTestInput.Operation oper, int startId,
+                                   int outerListElem, int innerListElem, long writesPerTx,
+                                   ListBuildOptions listOptions) {
+        this.startId = startId;
         this.outerListElem = outerListElem;
         this.innerListElem = innerListElem;
         this.writesPerTx = writesPerTx;
         this.oper = oper;
+        this.listOptions = listOptions;
+        this.outerListIds = KeyDistribution.SEQUENTIAL.generate(startId, outerListElem, 0);
+    }
+
+    /**
+     * Runs the test open-loop: transactions are started on a fixed timeline
+     * at the given rate and their latency is measured from the intended
+     * start time. A writer takes the slot of a transaction before it
+     * allocates and fills the transaction, so the latency includes both.
+     * Must be called before executeList().
+     *
+     * @param txPerSec target rate; 0 submits as fast as possible
+     */
+    public void setTargetRate(double txPerSec) {
+        this.pacer = new TxPacer(txPerSec);
+    }
+
+    /**
+     * Sets the order in which the test accesses the OuterList ids in this
+     * writer's slice; by default every id is accessed once, in ascending
+     * order. Must be called before createList().
+     */
+    public void setKeyDistribution(KeyDistribution keyDistribution, long seed) {
+        this.outerListIds = keyDistribution.generate(startId, outerListElem, seed);
+    }
+
+    /**
+     * Sets the data stores the test runs against; by default only the
+     * configuration data store. Every write and delete is applied to each
+     * of them in the same transaction. Must be called before createList().
+     */
+    public void setDataStores(LogicalDatastoreType... dataStores) {
+        this.dataStores = dataStores;
     }
 
     public abstract void createList();
     public abstract void executeList();
 
+    /**
+     * Called by the writers of the list right before they submit a
+     * transaction, so that a LISTEN test knows when the transaction that
+     * wrote an element was submitted.
+     */
+    protected void beforeSubmit() {
+        if (listOptions.getWriteTxStamp() != null) {
+            listOptions.getWriteTxStamp().submitted();
+        }
+    }
+
+    /**
+     * Returns the number of OuterList changes a PUT test of this writer
+     * makes in one data store: puts of the same id within one transaction
+     * collapse into a single change.
+     */
+    public long countPutChanges() {
+        long changes = 0;
+        final Set<Integer> txIds = new HashSet<>();
+        for (int i = 0; i < outerListIds.length; i++) {
+            txIds.add(outerListIds[i]);
+            if ((i + 1) % writesPerTx == 0 || i == outerListIds.length - 1) {
+                changes += txIds.size();
+                txIds.clear();
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Checks an OuterList element read back by a READ test: it must hold
+     * innerListElem InnerList entries, each with the value the test data
+     * was written with. Every read mode, serial or pipelined, binding-aware
+     * or binding-independent, applies this check and counts an element
+     * that fails it as an error.
+     */
+    protected boolean verifyOuterList(OuterList outerList, int id) {
+        final List<InnerList> entries = outerList.getInnerList() != null
+                ? outerList.getInnerList() : Collections.emptyList();
+        if (!verifyInnerListSize(id, entries.size())) {
+            return false;
+        }
+        for (InnerList entry : entries) {
+            if (!verifyInnerListEntry(id, entry.getName(), entry.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Like verifyOuterList, for an OuterList element read as a normalized node.
+     */
+    protected boolean verifyOuterListNode(NormalizedNode<?, ?> outerList, int id) {
+        final Optional<DataContainerChild<? extends PathArgument, ?>> innerList =
+                ((MapEntryNode) outerList).getChild(INNER_LIST);
+        final Collection<MapEntryNode> entries = innerList.isPresent()
+                ? ((MapNode) innerList.get()).getValue() : Collections.emptyList();
+        if (!verifyInnerListSize(id, entries.size())) {
+            return false;
+        }
+        for (MapEntryNode entry : entries) {
+            final Optional<DataContainerChild<? extends PathArgument, ?>> name = entry.getChild(IL_NAME);
+            final Optional<DataContainerChild<? extends PathArgument, ?>> value = entry.getChild(IL_VALUE);
+            if (!verifyInnerListEntry(id, name.isPresent() ? name.get().getValue() : null,
+                    value.isPresent() ? value.get().getValue() : null)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean verifyInnerListSize(int id, int size) {
+        if (size != innerListElem) {
+            LOG.error("OuterList {}: {} innerList entries, expected {}", id, size, innerListElem);
+            return false;
+        }
+        return true;
+    }
+
+    private boolean verifyInnerListEntry(int id, Object name, Object value) {
+        if (!(name instanceof Integer) || !listOptions.itemValue(id, (Integer) name).equals(value)) {
+            LOG.error("OuterList {}: innerList name: {}, value: {}", id, name, value);
+            return false;
+        }
+        return true;
+    }
+
     public int getTxError() {
-        return txError;
+        return txError.get();
     }
 
     public int getTxOk() {
-        return txOk;
+        return txOk.get();
+    }
+
+    public LatencyHistogram getTxLatency() {
+        return txLatency;
+    }
+
+    /**
+     * Returns the largest number of transactions this writer had in flight,
+     * allocated but not yet completed, at the same time. Writers that wait
+     * for each commit before allocating the next transaction never exceed
+     * one.
+     */
+    public int getOutstandingTxHighWater() {
+        return 1;
+    }
+
+    public int getStartId() {
+        return startId;
+    }
+
+    public int getOuterListElem() {
+        return outerListElem;
     }
 
 }
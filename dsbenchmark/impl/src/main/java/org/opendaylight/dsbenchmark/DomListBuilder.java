@@ -9,51 +9,151 @@
 package org.opendaylight.dsbenchmark;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.OuterList;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.outer.list.InnerList;
 import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.LeafNode;
 import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
 import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
 import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
 import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.DataContainerNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableContainerNodeBuilder;
 
 public final class DomListBuilder {
     // Inner List Qname identifiers for yang model's 'name' and 'value'
     private static final org.opendaylight.yangtools.yang.common.QName IL_NAME = QName.create(InnerList.QNAME, "name");
     private static final org.opendaylight.yangtools.yang.common.QName IL_VALUE = QName.create(InnerList.QNAME, "value");
 
+    // Payload shape Qname identifiers for the optional 'extra-leaf' list and 'levelN' containers
+    private static final QName EXTRA_LEAF = QName.create(InnerList.QNAME, "extra-leaf");
+    private static final QName EL_INDEX = QName.create(InnerList.QNAME, "index");
+    private static final QName[] LEVELS = {
+        QName.create(InnerList.QNAME, "level1"),
+        QName.create(InnerList.QNAME, "level2"),
+        QName.create(InnerList.QNAME, "level3"),
+        QName.create(InnerList.QNAME, "level4")
+    };
+
     // Outer List Qname identifier for yang model's 'id'
     private static final org.opendaylight.yangtools.yang.common.QName OL_ID = QName.create(OuterList.QNAME, "id");
+    private static final QName OL_WRITE_TX = QName.create(OuterList.QNAME, "write-tx");
 
-    static public List<MapEntryNode> buildOuterList(int outerElements, int innerElements) {
-        List<MapEntryNode> outerList = new ArrayList<MapEntryNode>(outerElements);
-        for (int j = 0; j < outerElements; j++) {
-            outerList.add(ImmutableNodes.mapEntryBuilder()
-                                .withNodeIdentifier(new NodeIdentifierWithPredicates(OuterList.QNAME, OL_ID, j))
-                                .withChild(ImmutableNodes.leafNode(OL_ID, j))
-                                .withChild(buildInnerList(j, innerElements))
-                                .build());
+    /**
+     * Returns the OuterList entries with the given ids, in the same order.
+     * In streaming mode the entries are generated one at a time while the
+     * returned Iterable is iterated, so they never all live on the heap at once.
+     */
+    static public Iterable<MapEntryNode> buildOuterList(int[] ids, int innerElements, ListBuildOptions options) {
+        final InnerListPool pool = options.isPoolLeafValues() ? new InnerListPool(innerElements) : null;
+
+        if (options.isStreaming()) {
+            return () -> new Iterator<MapEntryNode>() {
+                private int next = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return next < ids.length;
+                }
+
+                @Override
+                public MapEntryNode next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return buildOuterListEntry(ids[next++], innerElements, pool, options);
+                }
+            };
         }
 
+        List<MapEntryNode> outerList = new ArrayList<MapEntryNode>(ids.length);
+        for (int id : ids) {
+            outerList.add(buildOuterListEntry(id, innerElements, pool, options));
+        }
         return outerList;
     }
 
-    static private MapNode buildInnerList(int index, int elements ) {
+    static private MapEntryNode buildOuterListEntry(int id, int innerElements, InnerListPool pool,
+            ListBuildOptions options) {
+        final DataContainerNodeBuilder<NodeIdentifierWithPredicates, MapEntryNode> entry =
+                ImmutableNodes.mapEntryBuilder()
+                                .withNodeIdentifier(new NodeIdentifierWithPredicates(OuterList.QNAME, OL_ID, id))
+                                .withChild(ImmutableNodes.leafNode(OL_ID, id))
+                                .withChild(buildInnerList(id, innerElements, pool, options));
+        if (options.getWriteTxStamp() != null) {
+            entry.withChild(ImmutableNodes.leafNode(OL_WRITE_TX, options.getWriteTxStamp().currentTx()));
+        }
+        return entry.build();
+    }
+
+    static private MapNode buildInnerList(int index, int elements, InnerListPool pool, ListBuildOptions options) {
         CollectionNodeBuilder<MapEntryNode, MapNode> innerList = ImmutableNodes.mapNodeBuilder(InnerList.QNAME);
 
-        final String itemStr = "Item-" + String.valueOf(index) + "-";
         for( int i = 0; i < elements; i++ ) {
-            innerList.addChild(ImmutableNodes.mapEntryBuilder()
-                                .withNodeIdentifier(new NodeIdentifierWithPredicates(InnerList.QNAME, IL_NAME, i))
-                                .withChild(ImmutableNodes.leafNode(IL_NAME, i))
-                                .withChild(ImmutableNodes.leafNode(IL_VALUE, itemStr + String.valueOf(i)))
-                                .build());
+            final String value = options.itemValue(index, i);
+            final DataContainerNodeBuilder<NodeIdentifierWithPredicates, MapEntryNode> entry =
+                    ImmutableNodes.mapEntryBuilder()
+                                .withNodeIdentifier(pool != null ? pool.ids[i]
+                                        : new NodeIdentifierWithPredicates(InnerList.QNAME, IL_NAME, i))
+                                .withChild(pool != null ? pool.names[i] : ImmutableNodes.leafNode(IL_NAME, i))
+                                .withChild(ImmutableNodes.leafNode(IL_VALUE, value));
+            if (options.getExtraLeaves() > 0) {
+                entry.withChild(buildExtraLeaves(options.getExtraLeaves(), value));
+            }
+            if (options.getNestingDepth() > 0) {
+                entry.withChild(buildLevel(0, options.getNestingDepth(), value));
+            }
+            innerList.addChild(entry.build());
         }
         return innerList.build();
     }
 
+    static private MapNode buildExtraLeaves(int elements, String value) {
+        CollectionNodeBuilder<MapEntryNode, MapNode> extraLeaves = ImmutableNodes.mapNodeBuilder(EXTRA_LEAF);
+        for (int i = 0; i < elements; i++) {
+            extraLeaves.addChild(ImmutableNodes.mapEntryBuilder()
+                                .withNodeIdentifier(new NodeIdentifierWithPredicates(EXTRA_LEAF, EL_INDEX, i))
+                                .withChild(ImmutableNodes.leafNode(EL_INDEX, i))
+                                .withChild(ImmutableNodes.leafNode(IL_VALUE, value))
+                                .build());
+        }
+        return extraLeaves.build();
+    }
 
+    // All 'value' leaves share the module namespace, so IL_VALUE identifies them at every level
+    static private ContainerNode buildLevel(int level, int depth, String value) {
+        final DataContainerNodeBuilder<NodeIdentifier, ContainerNode> container =
+                ImmutableContainerNodeBuilder.create()
+                                .withNodeIdentifier(new NodeIdentifier(LEVELS[level]))
+                                .withChild(ImmutableNodes.leafNode(IL_VALUE, value));
+        if (level + 1 < depth) {
+            container.withChild(buildLevel(level + 1, depth, value));
+        }
+        return container.build();
+    }
+
+    /**
+     * InnerList identifiers and 'name' leaves, which are identical in every
+     * OuterList entry and can therefore be shared between them.
+     */
+    private static final class InnerListPool {
+        final NodeIdentifierWithPredicates[] ids;
+        final LeafNode<?>[] names;
+
+        InnerListPool(int elements) {
+            ids = new NodeIdentifierWithPredicates[elements];
+            names = new LeafNode<?>[elements];
+            for (int i = 0; i < elements; i++) {
+                ids[i] = new NodeIdentifierWithPredicates(InnerList.QNAME, IL_NAME, i);
+                names[i] = ImmutableNodes.leafNode(IL_NAME, i);
+            }
+        }
+    }
 }
@@ -7,32 +7,87 @@
  */
 package org.opendaylight.dsbenchmark;
 
+import com.google.common.base.Optional;
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import javax.management.JMException;
+import javax.management.ObjectName;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.DataTreeIdentifier;
 import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.AsyncTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.common.api.data.TransactionChain;
+import org.opendaylight.controller.md.sal.common.api.data.TransactionChainListener;
 import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataBroker;
+import org.opendaylight.controller.md.sal.dom.api.DOMDataReadOnlyTransaction;
+import org.opendaylight.controller.md.sal.dom.api.DOMDataTreeChangeService;
+import org.opendaylight.controller.md.sal.dom.api.DOMDataTreeIdentifier;
+import org.opendaylight.controller.md.sal.dom.api.DOMDataWriteTransaction;
+import org.opendaylight.controller.md.sal.dom.api.DOMTransactionChain;
 import org.opendaylight.controller.sal.binding.api.BindingAwareBroker.ProviderContext;
 import org.opendaylight.controller.sal.binding.api.BindingAwareBroker.RpcRegistration;
 import org.opendaylight.controller.sal.binding.api.BindingAwareProvider;
+import org.opendaylight.dsbenchmark.listener.AbstractLatencyListener;
+import org.opendaylight.dsbenchmark.listener.BaLatencyListener;
+import org.opendaylight.dsbenchmark.listener.CleanupNotificationListener;
+import org.opendaylight.dsbenchmark.listener.DomLatencyListener;
+import org.opendaylight.dsbenchmark.sharded.ShardedDomDelete;
+import org.opendaylight.dsbenchmark.sharded.ShardedDomWrite;
 import org.opendaylight.dsbenchmark.simpletx.SimpletxBaDelete;
+import org.opendaylight.dsbenchmark.simpletx.SimpletxBaMixed;
 import org.opendaylight.dsbenchmark.simpletx.SimpletxBaRead;
+import org.opendaylight.dsbenchmark.simpletx.SimpletxBaUpdate;
 import org.opendaylight.dsbenchmark.simpletx.SimpletxBaWrite;
 import org.opendaylight.dsbenchmark.simpletx.SimpletxDomDelete;
+import org.opendaylight.dsbenchmark.simpletx.SimpletxDomMixed;
 import org.opendaylight.dsbenchmark.simpletx.SimpletxDomRead;
+import org.opendaylight.dsbenchmark.simpletx.SimpletxDomUpdate;
 import org.opendaylight.dsbenchmark.simpletx.SimpletxDomWrite;
 import org.opendaylight.dsbenchmark.txchain.TxchainBaDelete;
+import org.opendaylight.dsbenchmark.txchain.TxchainBaMixed;
 import org.opendaylight.dsbenchmark.txchain.TxchainBaRead;
+import org.opendaylight.dsbenchmark.txchain.TxchainBaUpdate;
 import org.opendaylight.dsbenchmark.txchain.TxchainBaWrite;
 import org.opendaylight.dsbenchmark.txchain.TxchainDomDelete;
+import org.opendaylight.dsbenchmark.txchain.TxchainDomMixed;
 import org.opendaylight.dsbenchmark.txchain.TxchainDomRead;
+import org.opendaylight.dsbenchmark.txchain.TxchainDomUpdate;
 import org.opendaylight.dsbenchmark.txchain.TxchainDomWrite;
+import org.opendaylight.mdsal.dom.api.DOMDataTreeService;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.DataStoreType;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.DsbenchmarkService;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.CleanupStoreInput;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.CleanupStoreOutput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.CleanupStoreOutputBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.CompareToBaselineInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.CompareToBaselineOutput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.CompareToBaselineOutputBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.StartTestInput;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.StartTestOutput;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.StartTestOutputBuilder;
@@ -41,10 +96,34 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchm
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.TestStatus;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.TestStatus.ExecStatus;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.TestStatusBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.compare.to.baseline.output.Comparison;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.compare.to.baseline.output.ComparisonBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.compare.to.baseline.output.ComparisonKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.start.test.output.IterationStatsBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.start.test.output.ListenerResult;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.start.test.output.ListenerResultBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.start.test.output.ListenerResultKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.start.test.output.OperationResult;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.start.test.output.OperationResultBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.start.test.output.OperationResultKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.start.test.output.ThreadResult;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.start.test.output.ThreadResultBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.start.test.output.ThreadResultKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.start.test.output.TxLatency;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.start.test.output.TxLatencyBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.start.test.output.iteration.stats.ExecTime;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.start.test.output.iteration.stats.ExecTimeBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.start.test.output.iteration.stats.OpsPerSecBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.OuterList;
+import org.opendaylight.yangtools.concepts.ListenerRegistration;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.opendaylight.yangtools.yang.common.RpcError.ErrorType;
 import org.opendaylight.yangtools.yang.common.RpcResult;
 import org.opendaylight.yangtools.yang.common.RpcResultBuilder;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -55,25 +134,62 @@ public class DsbenchmarkProvider implements BindingAwareProvider, DsbenchmarkSer
 
     private static final InstanceIdentifier<TestExec> TEST_EXEC_IID = InstanceIdentifier.builder(TestExec.class).build();
     private static final InstanceIdentifier<TestStatus> TEST_STATUS_IID = InstanceIdentifier.builder(TestStatus.class).build();
+    private static final InstanceIdentifier<OuterList> OUTER_LIST_IID = TEST_EXEC_IID.child(OuterList.class);
+    private static final YangInstanceIdentifier TEST_EXEC_YID = YangInstanceIdentifier.of(TestExec.QNAME);
+    private static final YangInstanceIdentifier OUTER_LIST_YID = TEST_EXEC_YID.node(OuterList.QNAME);
+    private static final int DEFAULT_CLEANUP_CHUNK_SIZE = 10000;
+    // Upper bound of the writer-threads input, which sizes the writer thread pool
+    private static final int MAX_WRITER_THREADS = 1024;
+    private static final TransactionChainListener CLEANUP_CHAIN_LISTENER = new TransactionChainListener() {
+        @Override
+        public void onTransactionChainFailed(TransactionChain<?, ?> chain,
+                AsyncTransaction<?, ?> transaction, Throwable cause) {
+            LOG.error("Broken cleanup chain {}, transaction {}, cause {}",
+                    chain, transaction.getIdentifier(), cause);
+        }
+
+        @Override
+        public void onTransactionChainSuccessful(TransactionChain<?, ?> chain) {
+            LOG.debug("Cleanup chain {} closed successfully", chain);
+        }
+    };
     private final DOMDataBroker domDataBroker;
     private final DataBroker bindingDataBroker;
+    // Optional; only needed by SHARDED-PRODUCER tests
+    private final DOMDataTreeService domDataTreeService;
     private RpcRegistration<DsbenchmarkService> dstReg;
     private DataBroker dataBroker;
 
-    private long testsCompleted = 0;
+    private final ResultStore resultStore = ResultStore.createDefault();
+    private final ExecutorService testExecutor = Executors.newSingleThreadExecutor();
+    private final ScheduledExecutorService progressExecutor = Executors.newSingleThreadScheduledExecutor();
+
+    // Only updated by the test that holds execStatus, which may run on the
+    // test executor; volatile, so that other threads see the latest values
+    private volatile long testsCompleted = 0;
+    private volatile long lastRunId = 0;
 
     public DsbenchmarkProvider(DOMDataBroker domDataBroker, DataBroker bindingDataBroker) {
+        this(domDataBroker, bindingDataBroker, null);
+    }
+
+    public DsbenchmarkProvider(DOMDataBroker domDataBroker, DataBroker bindingDataBroker,
+            DOMDataTreeService domDataTreeService) {
         // We have to get the DOMDataBroker via the constructor,
         // since we can't get it from the session
         this.domDataBroker = domDataBroker;
         this.bindingDataBroker = bindingDataBroker;
+        this.domDataTreeService = domDataTreeService;
     }
 
     @Override
     public void onSessionInitiated(ProviderContext session) {
         this.dataBroker = session.getSALService(DataBroker.class);
         this.dstReg = session.addRpcImplementation( DsbenchmarkService.class, this );
-        setTestOperData(this.execStatus.get(), testsCompleted);
+        setTestOperData(new TestStatusBuilder()
+                .setExecStatus(this.execStatus.get())
+                .setTestsCompleted(testsCompleted)
+                .build());
 
         LOG.info("DsbenchmarkProvider Session Initiated");
     }
@@ -81,14 +197,70 @@ public class DsbenchmarkProvider implements BindingAwareProvider, DsbenchmarkSer
     @Override
     public void close() throws Exception {
         dstReg.close();
+        testExecutor.shutdownNow();
+        progressExecutor.shutdownNow();
         LOG.info("DsbenchmarkProvider Closed");
     }
 
     @Override
     public ListenableFuture<RpcResult<CleanupStoreOutput>> cleanupStore(CleanupStoreInput input) {
-        cleanupTestStore();
+        final int chunkSize = input != null && input.getChunkSize() != null
+                ? input.getChunkSize().intValue() : DEFAULT_CLEANUP_CHUNK_SIZE;
+        final boolean waitForNotification = input != null && Boolean.TRUE.equals(input.isWaitForNotification());
+        final long listenerTimeout = input != null && input.getListenerTimeout() != null
+                ? input.getListenerTimeout() : 30000;
+        final LogicalDatastoreType[] dataStores = getDataStores(input != null && input.getDataStore() != null
+                ? input.getDataStore() : DataStoreType.BOTH);
+
+        final CleanupStoreOutput output = cleanupTestStore(dataStores, chunkSize, waitForNotification, listenerTimeout);
         LOG.info("Data Store cleaned up");
-        return RpcResultBuilder.<CleanupStoreOutput>success().buildFuture();
+        return RpcResultBuilder.success(output).buildFuture();
+    }
+
+    @Override
+    public ListenableFuture<RpcResult<CompareToBaselineOutput>> compareToBaseline(CompareToBaselineInput input) {
+        final int thresholdPercent = input.getThresholdPercent() != null ? input.getThresholdPercent() : 15;
+        final List<BaselineComparison> comparisons;
+        try {
+            comparisons = BaselineComparison.compare(resultStore.read(input.getBaseline()),
+                    resultStore.read(input.getCandidate()), thresholdPercent);
+        } catch (IOException | IllegalArgumentException e) {
+            LOG.error("Failed to read the results store {}", resultStore.getFile(), e);
+            return RpcResultBuilder.<CompareToBaselineOutput>failed()
+                    .withError(ErrorType.APPLICATION, "Failed to read the results store", e).buildFuture();
+        }
+
+        CompareToBaselineOutput.Status status = comparisons.isEmpty()
+                ? CompareToBaselineOutput.Status.NODATA : CompareToBaselineOutput.Status.OK;
+        final List<Comparison> comparisonList = new ArrayList<>(comparisons.size());
+        for (BaselineComparison comparison : comparisons) {
+            if (comparison.isRegression()) {
+                LOG.error("Regression of {} against baseline {}: ops/sec {}%, p99 latency {}%",
+                        comparison.getTestKey(), input.getBaseline(), comparison.getOpsPerSecChange(),
+                        comparison.getP99Change());
+                status = CompareToBaselineOutput.Status.REGRESSION;
+            }
+            comparisonList.add(new ComparisonBuilder()
+                    .withKey(new ComparisonKey(comparison.getTestKey()))
+                    .setBaselineSamples((long) comparison.getBaselineOpsPerSec().getSamples())
+                    .setCandidateSamples((long) comparison.getCandidateOpsPerSec().getSamples())
+                    .setBaselineOpsPerSec(Math.round(comparison.getBaselineOpsPerSec().getMean()))
+                    .setCandidateOpsPerSec(Math.round(comparison.getCandidateOpsPerSec().getMean()))
+                    .setOpsPerSecChange(toPercent(comparison.getOpsPerSecChange()))
+                    .setBaselineP99(Math.round(comparison.getBaselineP99().getMean()))
+                    .setCandidateP99(Math.round(comparison.getCandidateP99().getMean()))
+                    .setP99Change(toPercent(comparison.getP99Change()))
+                    .setRegression(comparison.isRegression())
+                    .build());
+        }
+        return RpcResultBuilder.success(new CompareToBaselineOutputBuilder()
+                .setStatus(status)
+                .setComparison(comparisonList)
+                .build()).buildFuture();
+    }
+
+    private static BigDecimal toPercent(double change) {
+        return BigDecimal.valueOf(change).setScale(2, RoundingMode.HALF_UP);
     }
 
     @Override
@@ -103,57 +275,494 @@ public class DsbenchmarkProvider implements BindingAwareProvider, DsbenchmarkSer
                     .build()).buildFuture();
         }
 
+        final long runId = ++lastRunId;
+        if (Boolean.TRUE.equals(input.isAsync())) {
+            // Return right away; progress and results are published to test-status
+            testExecutor.execute(() -> runTest(input, runId));
+            return RpcResultBuilder.success(new StartTestOutputBuilder()
+                    .setStatus(StartTestOutput.Status.OK)
+                    .setRunId(runId)
+                    .build()).buildFuture();
+        }
+
+        return RpcResultBuilder.success(runTest(input, runId)).buildFuture();
+    }
+
+    private StartTestOutput runTest(StartTestInput input, long runId) {
+        try {
+            return executeTest(input, runId);
+        } catch ( RuntimeException e ) {
+            LOG.error( "Test error: {}", e.toString());
+            setTestOperData(new TestStatusBuilder()
+                    .setExecStatus(ExecStatus.Idle)
+                    .setTestsCompleted(testsCompleted)
+                    .setRunId(runId)
+                    .build());
+            return new StartTestOutputBuilder()
+                    .setStatus(StartTestOutput.Status.FAILED)
+                    .setRunId(runId)
+                    .build();
+        } finally {
+            execStatus.set(ExecStatus.Idle);
+        }
+    }
+
+    private StartTestOutput executeTest(StartTestInput input, long runId) {
+        final long warmupIterations = input.getWarmupIterations() != null ? input.getWarmupIterations() : 0;
+        final int measurementIterations = input.getMeasurementIterations() != null
+                ? input.getMeasurementIterations().intValue() : 1;
+
+        // Warmup iterations let the JIT compile the hot paths; their results are discarded
+        for (long i = 0; i < warmupIterations; i++) {
+            LOG.info("Warmup iteration {} of {}", i + 1, warmupIterations);
+            executeIteration(input, runId);
+        }
+
+        final long[] execTimes = new long[measurementIterations];
+        final long[] opsPerSec = new long[measurementIterations];
+        StartTestOutputBuilder outputBuilder = null;
+        for (int i = 0; i < measurementIterations; i++) {
+            LOG.info("Measurement iteration {} of {}", i + 1, measurementIterations);
+            outputBuilder = executeIteration(input, runId);
+            execTimes[i] = outputBuilder.getExecTime();
+            opsPerSec[i] = execTimes[i] > 0 ? input.getOuterElements() * 1000000 / execTimes[i] : 0;
+            storeResult(input, runId, outputBuilder, opsPerSec[i]);
+        }
+        this.testsCompleted++;
+
+        if (measurementIterations > 1) {
+            final ExecTime execTimeStats = buildSummaryStats(new SummaryStatistics(execTimes));
+            outputBuilder.setIterationStats(new IterationStatsBuilder()
+                    .setExecTime(execTimeStats)
+                    .setOpsPerSec(new OpsPerSecBuilder(
+                            buildSummaryStats(new SummaryStatistics(opsPerSec))).build())
+                    .build());
+        }
+
+        // The remaining results are those of the last measurement iteration
+        final long execTime = outputBuilder.getExecTime();
+        final long txCompleted = outputBuilder.getTxOk() + outputBuilder.getTxError();
+        LOG.info("Test finished");
+        setTestOperData(new TestStatusBuilder()
+                .setExecStatus(ExecStatus.Idle)
+                .setTestsCompleted(testsCompleted)
+                .setRunId(runId)
+                .setElapsedTime(execTime / 1000)
+                .setTxCompleted(txCompleted)
+                .setTxPerSec(execTime > 0 ? txCompleted * 1000000 / execTime : 0)
+                .setTxLatency(new org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark
+                        .rev150105.test.status.TxLatencyBuilder(outputBuilder.getTxLatency()).build())
+                .build());
+        return outputBuilder.build();
+    }
+
+    /**
+     * Appends the results of a measurement iteration to the results store.
+     * A failure to store them does not fail the test.
+     */
+    private void storeResult(StartTestInput input, long runId, StartTestOutputBuilder output, long opsPerSec) {
+        final TxLatency latency = output.getTxLatency();
+        try {
+            resultStore.append(new TestResult(Instant.now().toString(), runId, input.getTag(),
+                    getTestParameters(input), output.getExecTime(), opsPerSec, output.getTxOk(),
+                    output.getTxError(), latency.getP50(), latency.getP99(), latency.getMax()));
+        } catch (IOException e) {
+            LOG.warn("Failed to store the results of test run {} in {}", runId, resultStore.getFile(), e);
+        }
+    }
+
+    /**
+     * Returns the start-test inputs by YANG leaf name, with the YANG defaults
+     * filled in for the inputs that were left out.
+     */
+    private static Map<String, String> getTestParameters(StartTestInput input) {
+        final Map<String, String> params = new LinkedHashMap<>();
+        params.put("transaction-type", valueOrDefault(input.getTransactionType(), null));
+        params.put("data-format", valueOrDefault(input.getDataFormat(), null));
+        params.put("operation", valueOrDefault(input.getOperation(), null));
+        params.put("data-store", valueOrDefault(input.getDataStore(), DataStoreType.CONFIG));
+        params.put("outerElements", valueOrDefault(input.getOuterElements(), 100000));
+        params.put("innerElements", valueOrDefault(input.getInnerElements(), 1));
+        params.put("putsPerTx", valueOrDefault(input.getPutsPerTx(), 1));
+        params.put("writer-threads", valueOrDefault(input.getWriterThreads(), 1));
+        params.put("read-window", valueOrDefault(input.getReadWindow(), 1));
+        params.put("list-mode", valueOrDefault(input.getListMode(), StartTestInput.ListMode.MATERIALIZED));
+        params.put("pool-leaf-values", valueOrDefault(input.isPoolLeafValues(), false));
+        params.put("target-rate", valueOrDefault(input.getTargetRate(), 0));
+        params.put("max-outstanding-tx", valueOrDefault(input.getMaxOutstandingTx(), 0));
+        params.put("key-distribution",
+                valueOrDefault(input.getKeyDistribution(), StartTestInput.KeyDistribution.SEQUENTIAL));
+        params.put("zipf-skew", valueOrDefault(input.getZipfSkew(), "0.99"));
+        params.put("read-percent", valueOrDefault(input.getReadPercent(), 50));
+        params.put("put-percent", valueOrDefault(input.getPutPercent(), 30));
+        params.put("merge-percent", valueOrDefault(input.getMergePercent(), 10));
+        params.put("delete-percent", valueOrDefault(input.getDeletePercent(), 10));
+        params.put("value-size", valueOrDefault(input.getValueSize(), 0));
+        params.put("extra-leaves", valueOrDefault(input.getExtraLeaves(), 0));
+        params.put("nesting-depth", valueOrDefault(input.getNestingDepth(), 0));
+        params.put("update-percent", valueOrDefault(input.getUpdatePercent(), 10));
+        params.put("listeners", valueOrDefault(input.getListeners(), 1));
+        params.put("async", valueOrDefault(input.isAsync(), false));
+        params.put("progress-interval", valueOrDefault(input.getProgressInterval(), 1000));
+        params.put("measure-list-memory", valueOrDefault(input.isMeasureListMemory(), false));
+        params.put("warmup-iterations", valueOrDefault(input.getWarmupIterations(), 0));
+        params.put("measurement-iterations", valueOrDefault(input.getMeasurementIterations(), 1));
+        params.put("listener-timeout", valueOrDefault(input.getListenerTimeout(), 30000));
+        return params;
+    }
+
+    private static String valueOrDefault(Object value, Object defaultValue) {
+        return String.valueOf(value != null ? value : defaultValue);
+    }
+
+    private StartTestOutputBuilder executeIteration(StartTestInput input, long runId) {
         // Cleanup data that may be left over from a previous test run
-        cleanupTestStore();
+        cleanupTestStore(getDataStores(input.getDataStore()), DEFAULT_CLEANUP_CHUNK_SIZE, false, 0);
 
-        // Get the appropriate writer based on operation type and data format
-        DatastoreAbstractWriter dsWriter = getDatastoreWriter(input);
+        // A LISTEN test keeps the submit times of its transactions, for the listeners
+        final WriteTxClock writeTxClock = input.getOperation() == StartTestInput.Operation.LISTEN
+                ? new WriteTxClock() : null;
 
-        long startTime, endTime, listCreateTime, execTime;
+        // Get the appropriate writers based on operation type and data format;
+        // each writer owns a disjoint slice of the outer list ids
+        final List<DatastoreAbstractWriter> dsWriters = getDatastoreWriters(input, writeTxClock);
+        final ExecutorService executor = Executors.newFixedThreadPool(dsWriters.size());
+        final long progressInterval = input.getProgressInterval() != null ? input.getProgressInterval() : 1000;
 
-        startTime = System.nanoTime();
-        dsWriter.createList();
-        endTime = System.nanoTime();
-        listCreateTime = (endTime - startTime) / 1000;
+        long startTime, endTime, listCreateTime, execStartTime, execTime, gcCount, gcTime;
+        Long listCreateMemory = null;
+        List<WriterRun> listCreateRuns, execRuns;
+        ProgressReporter progressReporter = null;
+        ScheduledFuture<?> progress = null;
+        final List<AbstractLatencyListener> listeners = new ArrayList<>();
+        final List<ListenerRegistration<?>> listenerRegs = new ArrayList<>();
 
-        // Run the test and measure the execution time
         try {
+            // Measuring the retained heap forces two full GCs, so it is only done on request
+            final boolean measureListMemory = Boolean.TRUE.equals(input.isMeasureListMemory());
+            final long heapBefore = measureListMemory ? usedHeapAfterGc() : 0;
             startTime = System.nanoTime();
-            dsWriter.executeList();
+            listCreateRuns = runWriters(executor, dsWriters, DatastoreAbstractWriter::createList);
             endTime = System.nanoTime();
-            execTime = (endTime - startTime) / 1000;
+            listCreateTime = (endTime - startTime) / 1000;
+            if (measureListMemory) {
+                listCreateMemory = Math.max(0, usedHeapAfterGc() - heapBefore) / 1024;
+            }
 
-            this.testsCompleted++;
+            if (writeTxClock != null) {
+                registerListeners(input, dsWriters, writeTxClock, listeners, listenerRegs);
+            }
 
-        } catch ( Exception e ) {
-            LOG.error( "Test error: {}", e.toString());
-            execStatus.set( ExecStatus.Idle );
-            return RpcResultBuilder.success(new StartTestOutputBuilder()
-                    .setStatus(StartTestOutput.Status.FAILED)
-                    .build()).buildFuture();
+            if (progressInterval > 0) {
+                progressReporter = new ProgressReporter(runId, dsWriters);
+                progress = progressExecutor.scheduleAtFixedRate(progressReporter,
+                        0, progressInterval, TimeUnit.MILLISECONDS);
+            }
+
+            // Run the test and measure the execution time
+            final long gcCountBefore = totalGcCount();
+            final long gcTimeBefore = totalGcTime();
+            execStartTime = System.nanoTime();
+            execRuns = runWriters(executor, dsWriters, DatastoreAbstractWriter::executeList);
+            endTime = System.nanoTime();
+            execTime = (endTime - execStartTime) / 1000;
+            gcCount = totalGcCount() - gcCountBefore;
+            gcTime = totalGcTime() - gcTimeBefore;
+
+            // Notifications may still be in flight after the last commit completed
+            awaitListeners(listeners, input.getListenerTimeout() != null ? input.getListenerTimeout() : 30000);
+
+        } catch ( InterruptedException | ExecutionException e ) {
+            throw new IllegalStateException("Test execution failed", e);
+        } finally {
+            if (progress != null) {
+                progress.cancel(false);
+                progressReporter.stop();
+            }
+            executor.shutdown();
+            listenerRegs.forEach(ListenerRegistration::close);
         }
 
-        LOG.info("Test finished");
-        setTestOperData( ExecStatus.Idle, testsCompleted);
-        execStatus.set(ExecStatus.Idle);
+        long txOk = 0;
+        long txError = 0;
+        int outstandingTxHighWater = 0;
+        final LatencyHistogram txLatency = new LatencyHistogram();
+        final Map<StartTestInput.Operation, OperationStats> opStats = new EnumMap<>(StartTestInput.Operation.class);
+        final List<ThreadResult> threadResults = new ArrayList<>(dsWriters.size());
+        for (int i = 0; i < dsWriters.size(); i++) {
+            final DatastoreAbstractWriter dsWriter = dsWriters.get(i);
+            txOk += dsWriter.getTxOk();
+            txError += dsWriter.getTxError();
+            txLatency.add(dsWriter.getTxLatency());
+            outstandingTxHighWater = Math.max(outstandingTxHighWater, dsWriter.getOutstandingTxHighWater());
+            if (dsWriter instanceof DatastoreAbstractMixed) {
+                ((DatastoreAbstractMixed<?>) dsWriter).getOperationStats().forEach((op, stats) ->
+                        opStats.computeIfAbsent(op, k -> new OperationStats()).add(stats));
+            }
+            threadResults.add(new ThreadResultBuilder()
+                    .withKey(new ThreadResultKey((long) i))
+                    .setStartId((long) dsWriter.getStartId())
+                    .setOuterElements((long) dsWriter.getOuterListElem())
+                    .setExecTime(execRuns.get(i).time)
+                    .setTxOk((long) dsWriter.getTxOk())
+                    .setTxError((long) dsWriter.getTxError())
+                    .setOutstandingTxHighWater((long) dsWriter.getOutstandingTxHighWater())
+                    .build());
+        }
+        final TxLatency latencyStats = buildLatencyStats(txLatency);
 
-        StartTestOutput output = new StartTestOutputBuilder()
+        StartTestOutputBuilder outputBuilder = new StartTestOutputBuilder()
                 .setStatus(StartTestOutput.Status.OK)
+                .setRunId(runId)
                 .setListBuildTime(listCreateTime)
+                .setListBuildMemory(listCreateMemory)
                 .setExecTime(execTime)
-                .setTxOk((long)dsWriter.getTxOk())
-                .setTxError((long)dsWriter.getTxError())
-                .build();
+                .setTxOk(txOk)
+                .setTxError(txError)
+                .setTxLatency(latencyStats)
+                .setOutstandingTxHighWater((long) outstandingTxHighWater)
+                .setGcCount(gcCount)
+                .setGcTime(gcTime)
+                .setThreadResult(threadResults);
+        // Allocations are only counted on the writer threads; commit callbacks
+        // and the data store's own threads are not included
+        final long ops = input.getOuterElements();
+        final long listCreateAllocated = totalAllocatedBytes(listCreateRuns);
+        final long execAllocated = totalAllocatedBytes(execRuns);
+        if (listCreateAllocated >= 0 && execAllocated >= 0 && ops > 0) {
+            outputBuilder.setListBuildBytesPerOp(listCreateAllocated / ops)
+                    .setExecBytesPerOp(execAllocated / ops);
+        }
+        if (!opStats.isEmpty()) {
+            outputBuilder.setOperationResult(buildOperationResults(opStats, execTime));
+        }
+        if (!listeners.isEmpty()) {
+            long ntfOk = 0;
+            long events = 0;
+            for (AbstractLatencyListener listener : listeners) {
+                ntfOk += listener.getChanges();
+                events += listener.getEvents();
+            }
+            outputBuilder.setNtfOk(ntfOk)
+                    .setDataChangeEventsOk(events)
+                    .setListenerResult(buildListenerResults(listeners, execStartTime));
+        }
+        if (input.getOperation() == StartTestInput.Operation.READ && execTime > 0) {
+            // Each read is counted as either ok or error
+            outputBuilder.setReadsPerSec((txOk + txError) * 1000000 / execTime);
+        }
+        if (input.getOperation() == StartTestInput.Operation.UPDATE && execTime > 0) {
+            long updates = 0;
+            for (DatastoreAbstractWriter dsWriter : dsWriters) {
+                updates += ((DatastoreAbstractUpdate) dsWriter).getUpdates();
+            }
+            outputBuilder.setUpdatesPerSec(updates * 1000000 / execTime);
+        }
+        return outputBuilder;
+    }
 
-        return RpcResultBuilder.success(output).buildFuture();
+    /**
+     * Runs the given writer operation on every writer in its own thread and
+     * waits until all of them have finished.
+     *
+     * @return the time and allocations of each writer, in the same order as
+     *         the writers
+     */
+    private static List<WriterRun> runWriters(ExecutorService executor, List<DatastoreAbstractWriter> dsWriters,
+            Consumer<DatastoreAbstractWriter> writerOp) throws InterruptedException, ExecutionException {
+        final List<Callable<WriterRun>> tasks = new ArrayList<>(dsWriters.size());
+        for (final DatastoreAbstractWriter dsWriter : dsWriters) {
+            tasks.add(() -> {
+                final long allocatedBefore = currentThreadAllocatedBytes();
+                final long startTime = System.nanoTime();
+                writerOp.accept(dsWriter);
+                final long time = (System.nanoTime() - startTime) / 1000;
+                final long allocatedAfter = currentThreadAllocatedBytes();
+                return new WriterRun(time, allocatedBefore >= 0 && allocatedAfter >= 0
+                        ? allocatedAfter - allocatedBefore : -1);
+            });
+        }
+
+        final List<WriterRun> runs = new ArrayList<>(dsWriters.size());
+        for (Future<WriterRun> future : executor.invokeAll(tasks)) {
+            runs.add(future.get());
+        }
+        return runs;
+    }
+
+    /**
+     * Returns the bytes allocated by all writers, or -1 if the JVM does not
+     * support per-thread allocation accounting.
+     */
+    private static long totalAllocatedBytes(List<WriterRun> runs) {
+        long total = 0;
+        for (WriterRun run : runs) {
+            if (run.allocatedBytes < 0) {
+                return -1;
+            }
+            total += run.allocatedBytes;
+        }
+        return total;
+    }
+
+    /**
+     * Returns the bytes allocated so far by the current thread, or -1 if the
+     * JVM does not support it. ThreadMXBean.getThreadAllocatedBytes() is
+     * invoked through JMX, so that the bundle does not have to import the
+     * com.sun.management package.
+     */
+    private static long currentThreadAllocatedBytes() {
+        try {
+            final Object allocated = ManagementFactory.getPlatformMBeanServer().invoke(
+                    new ObjectName(ManagementFactory.THREAD_MXBEAN_NAME), "getThreadAllocatedBytes",
+                    new Object[] { Thread.currentThread().getId() }, new String[] { long.class.getName() });
+            return allocated instanceof Long ? (Long) allocated : -1;
+        } catch (JMException | UnsupportedOperationException e) {
+            LOG.debug("Thread allocation accounting is not available", e);
+            return -1;
+        }
+    }
+
+    private static long totalGcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gcBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gcBean.getCollectionCount());
+        }
+        return count;
+    }
+
+    /**
+     * Returns the accumulated collection time (in milliseconds) of all garbage collectors.
+     */
+    private static long totalGcTime() {
+        long time = 0;
+        for (GarbageCollectorMXBean gcBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            time += Math.max(0, gcBean.getCollectionTime());
+        }
+        return time;
+    }
+
+    private static List<OperationResult> buildOperationResults(Map<StartTestInput.Operation, OperationStats> opStats,
+            long execTime) {
+        final List<OperationResult> results = new ArrayList<>(opStats.size());
+        opStats.forEach((op, stats) -> results.add(new OperationResultBuilder()
+                .withKey(new OperationResultKey(op.name()))
+                .setOps(stats.getOps())
+                .setOpsPerSec(execTime > 0 ? stats.getOps() * 1000000 / execTime : 0)
+                .setTxOk((long) stats.getTxOk())
+                .setTxError((long) stats.getTxError())
+                .setTxLatency(new org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark
+                        .rev150105.start.test.output.operation.result.TxLatencyBuilder(
+                                buildLatencyStats(stats.getTxLatency())).build())
+                .build()));
+        return results;
+    }
+
+    private static List<ListenerResult> buildListenerResults(List<AbstractLatencyListener> listeners,
+            long execStartTime) {
+        final List<ListenerResult> results = new ArrayList<>(listeners.size());
+        for (int i = 0; i < listeners.size(); i++) {
+            final AbstractLatencyListener listener = listeners.get(i);
+            final long span = listener.getLastDeliveryTime() - execStartTime;
+            results.add(new ListenerResultBuilder()
+                    .withKey(new ListenerResultKey((long) i))
+                    .setEvents(listener.getEvents())
+                    .setChanges(listener.getChanges())
+                    .setChangesPerSec(span > 0 ? listener.getChanges() * 1000000000 / span : 0)
+                    .setDeliveryLatency(new org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang
+                            .dsbenchmark.rev150105.start.test.output.listener.result.DeliveryLatencyBuilder(
+                                    buildLatencyStats(listener.getDeliveryLatency())).build())
+                    .build());
+        }
+        return results;
+    }
+
+    /**
+     * Registers the LISTEN test listeners on the OuterList; binding-aware
+     * or binding-independent ones, following the test's data format. Each
+     * listener expects one change per distinct id in each transaction of
+     * the writers, since UNIFORM and ZIPFIAN tests may put an id several
+     * times in one transaction.
+     */
+    private void registerListeners(StartTestInput input, List<DatastoreAbstractWriter> dsWriters,
+            WriteTxClock writeTxClock, List<AbstractLatencyListener> listeners,
+            List<ListenerRegistration<?>> registrations) {
+        final long listenerCount = input.getListeners() != null ? input.getListeners() : 1;
+        long expectedChanges = 0;
+        for (DatastoreAbstractWriter dsWriter : dsWriters) {
+            expectedChanges += dsWriter.countPutChanges();
+        }
+        // With BOTH data stores, the listeners are registered on the configuration data store
+        final LogicalDatastoreType dataStore = getDataStores(input.getDataStore())[0];
+
+        if (input.getDataFormat() == StartTestInput.DataFormat.BINDINGAWARE) {
+            final DataTreeIdentifier<OuterList> path =
+                    new DataTreeIdentifier<>(dataStore, OUTER_LIST_IID);
+            for (long i = 0; i < listenerCount; i++) {
+                final BaLatencyListener listener = new BaLatencyListener(expectedChanges, writeTxClock);
+                registrations.add(dataBroker.registerDataTreeChangeListener(path, listener));
+                listeners.add(listener);
+            }
+        } else {
+            final DOMDataTreeChangeService changeService = getDataTreeChangeService();
+            final DOMDataTreeIdentifier path =
+                    new DOMDataTreeIdentifier(dataStore, OUTER_LIST_YID);
+            for (long i = 0; i < listenerCount; i++) {
+                final DomLatencyListener listener = new DomLatencyListener(expectedChanges, writeTxClock);
+                registrations.add(changeService.registerDataTreeChangeListener(path, listener));
+                listeners.add(listener);
+            }
+        }
+        LOG.info("Registered {} data tree change listeners", listenerCount);
+    }
+
+    private DOMDataTreeChangeService getDataTreeChangeService() {
+        final DOMDataTreeChangeService changeService = (DOMDataTreeChangeService) domDataBroker
+                .getSupportedExtensions().get(DOMDataTreeChangeService.class);
+        if (changeService == null) {
+            throw new IllegalStateException("DOMDataBroker does not support data tree change listeners");
+        }
+        return changeService;
+    }
+
+    /**
+     * Waits, up to the timeout shared by all listeners, until every listener
+     * has received all changes written by the test.
+     */
+    private static void awaitListeners(List<AbstractLatencyListener> listeners, long timeoutMillis)
+            throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        for (AbstractLatencyListener listener : listeners) {
+            if (!listener.awaitChanges(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                LOG.warn("Listeners did not receive all changes within {} ms", timeoutMillis);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the heap in use (in bytes) after requesting a full garbage
+     * collection, which approximates the size of the live data.
+     */
+    private static long usedHeapAfterGc() {
+        final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+        memoryBean.gc();
+        return memoryBean.getHeapMemoryUsage().getUsed();
     }
 
-    private void setTestOperData( ExecStatus sts, long tstCompl ) {
-        TestStatus status = new TestStatusBuilder()
-                .setExecStatus(sts)
-                .setTestsCompleted(tstCompl)
+    private static TxLatency buildLatencyStats(LatencyHistogram histogram) {
+        // The histogram records nanoseconds, the model reports microseconds
+        return new TxLatencyBuilder()
+                .setSamples(histogram.getCount())
+                .setP50(histogram.getValueAtPercentile(50) / 1000)
+                .setP90(histogram.getValueAtPercentile(90) / 1000)
+                .setP99(histogram.getValueAtPercentile(99) / 1000)
+                .setP999(histogram.getValueAtPercentile(99.9) / 1000)
+                .setMax(histogram.getMax() / 1000)
                 .build();
+    }
 
+    private void setTestOperData( TestStatus status ) {
         WriteTransaction tx = dataBroker.newWriteOnlyTransaction();
         tx.put(LogicalDatastoreType.OPERATIONAL, TEST_STATUS_IID, status);
 
@@ -166,88 +775,416 @@ public class DsbenchmarkProvider implements BindingAwareProvider, DsbenchmarkSer
         LOG.info("DataStore test oper status populated: {}", status);
     }
 
-    private void cleanupTestStore() {
-        TestExec data = new TestExecBuilder()
-                .setOuterList(Collections.<OuterList>emptyList())
-                .build();
+    /**
+     * Deletes the test data. The OuterList elements in the data stores are
+     * deleted in chunks, so that no single commit has to remove millions of
+     * elements, and then the test-exec container is replaced with an empty
+     * one, which also removes anything else under it.
+     *
+     * @param dataStores data stores to clean up
+     * @param chunkSize OuterList elements per transaction; 0 skips the
+     *                  chunked delete
+     * @param waitForNotification wait until a listener on test-exec in the
+     *                  first data store, registered for the cleanup, has
+     *                  been notified of the empty OuterList
+     */
+    private CleanupStoreOutput cleanupTestStore(LogicalDatastoreType[] dataStores, int chunkSize,
+            boolean waitForNotification, long listenerTimeout) {
+        CleanupNotificationListener notificationListener = null;
+        ListenerRegistration<?> notificationReg = null;
+        if (waitForNotification) {
+            notificationListener = new CleanupNotificationListener();
+            notificationReg = getDataTreeChangeService().registerDataTreeChangeListener(
+                    new DOMDataTreeIdentifier(dataStores[0], TEST_EXEC_YID), notificationListener);
+        }
 
-        WriteTransaction tx = dataBroker.newWriteOnlyTransaction();
-        tx.put(LogicalDatastoreType.CONFIGURATION, TEST_EXEC_IID, data);
         try {
-            tx.submit().checkedGet();
-            LOG.info("DataStore test data cleaned up");
-        } catch (TransactionCommitFailedException e) {
-            LOG.info("Failed to cleanup DataStore test data");
-            throw new IllegalStateException(e);
+            final long startTime = System.nanoTime();
+            final int deleted = chunkSize > 0 ? deleteOuterListChunks(dataStores, chunkSize) : 0;
+
+            TestExec data = new TestExecBuilder()
+                    .setOuterList(Collections.<OuterList>emptyList())
+                    .build();
+
+            WriteTransaction tx = dataBroker.newWriteOnlyTransaction();
+            for (LogicalDatastoreType dataStore : dataStores) {
+                tx.put(dataStore, TEST_EXEC_IID, data);
+            }
+            try {
+                tx.submit().checkedGet();
+                LOG.info("DataStore test data cleaned up");
+            } catch (TransactionCommitFailedException e) {
+                LOG.info("Failed to cleanup DataStore test data");
+                throw new IllegalStateException(e);
+            }
+            final long deleteTime = (System.nanoTime() - startTime) / 1000;
+
+            final CleanupStoreOutputBuilder output = new CleanupStoreOutputBuilder()
+                    .setDeleted((long) deleted)
+                    .setDeleteTime(deleteTime)
+                    .setDeletesPerSec(deleteTime > 0 ? deleted * 1000000L / deleteTime : 0);
+            if (notificationListener != null) {
+                final boolean notified = notificationListener.awaitEmpty(listenerTimeout, TimeUnit.MILLISECONDS);
+                if (!notified) {
+                    LOG.warn("Cleanup was not notified within {} ms", listenerTimeout);
+                }
+                output.setCleanupNotified(notified);
+            }
+            return output.build();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the cleanup notification", e);
+        } finally {
+            if (notificationReg != null) {
+                notificationReg.close();
+            }
         }
+    }
 
+    /**
+     * Deletes the OuterList elements that exist in each data store,
+     * chunkSize elements per transaction. The keys are read first; the
+     * transactions are then submitted back to back on a transaction chain
+     * and waited for at the end.
+     *
+     * @return the number of elements deleted, over all data stores
+     */
+    private int deleteOuterListChunks(LogicalDatastoreType[] dataStores, int chunkSize) {
+        final DOMTransactionChain chain = domDataBroker.createTransactionChain(CLEANUP_CHAIN_LISTENER);
+        final List<ListenableFuture<Void>> commits = new ArrayList<>();
+        int deleted = 0;
+        try {
+            for (LogicalDatastoreType dataStore : dataStores) {
+                final List<YangInstanceIdentifier> elements = readOuterListElements(chain, dataStore);
+                for (int start = 0; start < elements.size(); start += chunkSize) {
+                    final DOMDataWriteTransaction tx = chain.newWriteOnlyTransaction();
+                    for (YangInstanceIdentifier element
+                            : elements.subList(start, Math.min(elements.size(), start + chunkSize))) {
+                        tx.delete(dataStore, element);
+                    }
+                    commits.add(tx.submit());
+                }
+                deleted += elements.size();
+            }
+            Futures.allAsList(commits).get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new IllegalStateException("Chunked cleanup failed", e);
+        } finally {
+            chain.close();
+        }
+        LOG.info("Deleted {} OuterList elements in chunks of {}", deleted, chunkSize);
+        return deleted;
     }
 
-    private DatastoreAbstractWriter getDatastoreWriter(StartTestInput input) {
+    /**
+     * Returns the paths of the OuterList elements in the data store. Only
+     * the keys are kept, so the elements themselves can be collected while
+     * the deletes run.
+     */
+    private static List<YangInstanceIdentifier> readOuterListElements(DOMTransactionChain chain,
+            LogicalDatastoreType dataStore) throws InterruptedException, ExecutionException {
+        final DOMDataReadOnlyTransaction tx = chain.newReadOnlyTransaction();
+        final Optional<NormalizedNode<?, ?>> outerList;
+        try {
+            outerList = tx.read(dataStore, OUTER_LIST_YID).get();
+        } finally {
+            tx.close();
+        }
+        if (!outerList.isPresent() || !(outerList.get() instanceof MapNode)) {
+            return Collections.emptyList();
+        }
+
+        final Collection<MapEntryNode> entries = ((MapNode) outerList.get()).getValue();
+        final List<YangInstanceIdentifier> elements = new ArrayList<>(entries.size());
+        for (MapEntryNode entry : entries) {
+            elements.add(OUTER_LIST_YID.node(entry.getIdentifier()));
+        }
+        return elements;
+    }
+
+    /**
+     * @param writeTxClock clock that stamps the elements of a LISTEN test;
+     *                     null for other tests
+     */
+    private List<DatastoreAbstractWriter> getDatastoreWriters(StartTestInput input, WriteTxClock writeTxClock) {
+        final long threads = input.getWriterThreads() != null ? input.getWriterThreads() : 1;
+        if (threads < 1 || threads > MAX_WRITER_THREADS) {
+            throw new IllegalArgumentException("writer-threads must be between 1 and " + MAX_WRITER_THREADS);
+        }
+        final int writerThreads = (int) threads;
+        final int outerListElem = input.getOuterElements().intValue();
+        final List<DatastoreAbstractWriter> dsWriters = new ArrayList<>(writerThreads);
+        final KeyDistribution keyDistribution = getKeyDistribution(input);
+        final LogicalDatastoreType[] dataStores = getDataStores(input.getDataStore());
+        // Producers with overlapping subtrees cannot coexist, so a sharded test
+        // has a single producer, on the test-exec subtree of a single data store
+        if (input.getTransactionType() == StartTestInput.TransactionType.SHARDEDPRODUCER
+                && (writerThreads > 1 || dataStores.length > 1)) {
+            throw new IllegalArgumentException("SHARDED-PRODUCER supports one writer thread and one data store");
+        }
+
+        // Split the outer list into contiguous slices; the remainder is spread
+        // over the first threads, so slice sizes differ by at most one element
+        int startId = 0;
+        for (int i = 0; i < writerThreads; i++) {
+            final int sliceElem = outerListElem / writerThreads + (i < outerListElem % writerThreads ? 1 : 0);
+            final DatastoreAbstractWriter dsWriter = getDatastoreWriter(input, startId, sliceElem, writeTxClock);
+            // Seed each writer with its startId, so that repeated runs access the same keys
+            dsWriter.setKeyDistribution(keyDistribution, startId);
+            dsWriter.setDataStores(dataStores);
+            dsWriters.add(dsWriter);
+            startId += sliceElem;
+        }
+
+        // In an open-loop test the target rate is shared evenly by the writers
+        final Long targetRate = input.getTargetRate();
+        if (targetRate != null && targetRate > 0) {
+            for (DatastoreAbstractWriter dsWriter : dsWriters) {
+                dsWriter.setTargetRate((double) targetRate / writerThreads);
+            }
+        }
+        return dsWriters;
+    }
+
+    // Both iteration-stats containers use the summary-stats grouping, so the
+    // result can also be copied into an OpsPerSecBuilder
+    private static ExecTime buildSummaryStats(SummaryStatistics stats) {
+        final double halfWidth = stats.getConfidenceHalfWidth();
+        return new ExecTimeBuilder()
+                .setSamples((long) stats.getSamples())
+                .setMean(Math.round(stats.getMean()))
+                .setStddev(Math.round(stats.getStddev()))
+                .setMin(stats.getMin())
+                .setMax(stats.getMax())
+                .setCi95Low(Math.max(0, Math.round(stats.getMean() - halfWidth)))
+                .setCi95High(Math.round(stats.getMean() + halfWidth))
+                .build();
+    }
+
+    private static LogicalDatastoreType[] getDataStores(DataStoreType dataStore) {
+        if (dataStore == null) {
+            return new LogicalDatastoreType[] { LogicalDatastoreType.CONFIGURATION };
+        }
+        switch (dataStore) {
+            case OPERATIONAL:
+                return new LogicalDatastoreType[] { LogicalDatastoreType.OPERATIONAL };
+            case BOTH:
+                return new LogicalDatastoreType[] {
+                    LogicalDatastoreType.CONFIGURATION, LogicalDatastoreType.OPERATIONAL };
+            default:
+                return new LogicalDatastoreType[] { LogicalDatastoreType.CONFIGURATION };
+        }
+    }
+
+    private static OperationMix getOperationMix(StartTestInput input) {
+        return new OperationMix(
+                input.getReadPercent() != null ? input.getReadPercent() : 50,
+                input.getPutPercent() != null ? input.getPutPercent() : 30,
+                input.getMergePercent() != null ? input.getMergePercent() : 10,
+                input.getDeletePercent() != null ? input.getDeletePercent() : 10);
+    }
+
+    private static KeyDistribution getKeyDistribution(StartTestInput input) {
+        if (input.getKeyDistribution() == null) {
+            return KeyDistribution.SEQUENTIAL;
+        }
+        switch (input.getKeyDistribution()) {
+            case UNIFORM:
+                return new KeyDistribution(KeyDistribution.Type.UNIFORM, 0);
+            case ZIPFIAN:
+                return new KeyDistribution(KeyDistribution.Type.ZIPFIAN,
+                        input.getZipfSkew() != null ? input.getZipfSkew().doubleValue() : 0.99);
+            default:
+                return KeyDistribution.SEQUENTIAL;
+        }
+    }
+
+    private DatastoreAbstractWriter getDatastoreWriter(StartTestInput input, int startId, int outerListElem,
+            WriteTxClock writeTxClock) {
 
         final DatastoreAbstractWriter retVal;
 
         StartTestInput.TransactionType txType = input.getTransactionType();
         StartTestInput.Operation oper = input.getOperation();
         StartTestInput.DataFormat dataFormat = input.getDataFormat();
-        int outerListElem = input.getOuterElements().intValue();
+        // A LISTEN test PUTs elements that are built, and stamped with the
+        // number of the transaction that writes them, right before they are written
+        final boolean listen = StartTestInput.Operation.LISTEN == oper;
+        if (listen) {
+            oper = StartTestInput.Operation.PUT;
+        }
         int innerListElem = input.getInnerElements().intValue();
         int writesPerTx = input.getPutsPerTx().intValue();
+        int readWindow = input.getReadWindow() != null ? input.getReadWindow().intValue() : 1;
+        int maxOutstandingTx = input.getMaxOutstandingTx() != null ? input.getMaxOutstandingTx().intValue() : 0;
+        OperationMix mix = StartTestInput.Operation.MIXED == oper ? getOperationMix(input) : null;
+        int updatePercent = input.getUpdatePercent() != null ? input.getUpdatePercent() : 10;
+        ListBuildOptions listOptions = new ListBuildOptions(
+                listen || input.getListMode() == StartTestInput.ListMode.STREAMING,
+                Boolean.TRUE.equals(input.isPoolLeafValues()),
+                input.getValueSize() != null ? input.getValueSize().intValue() : 0,
+                input.getExtraLeaves() != null ? input.getExtraLeaves().intValue() : 0,
+                input.getNestingDepth() != null ? input.getNestingDepth().intValue() : 0,
+                listen ? writeTxClock.newStamp() : null);
 
-        try {
-            if (txType == StartTestInput.TransactionType.SIMPLETX) {
-                if (dataFormat == StartTestInput.DataFormat.BINDINGAWARE) {
-                    if (StartTestInput.Operation.DELETE == oper) {
-                        retVal = new SimpletxBaDelete(this.dataBroker, outerListElem,
-                                innerListElem,writesPerTx);
-                    } else if (StartTestInput.Operation.READ == oper) {
-                        retVal = new SimpletxBaRead(this.dataBroker, outerListElem,
-                                innerListElem,writesPerTx);
-                    } else {
-                        retVal = new SimpletxBaWrite(this.dataBroker, oper, outerListElem,
-                                innerListElem,writesPerTx);
-                    }
+        if (txType == StartTestInput.TransactionType.SIMPLETX) {
+            if (dataFormat == StartTestInput.DataFormat.BINDINGAWARE) {
+                if (StartTestInput.Operation.DELETE == oper) {
+                    retVal = new SimpletxBaDelete(this.dataBroker, startId, outerListElem,
+                            innerListElem, writesPerTx, listOptions);
+                } else if (StartTestInput.Operation.READ == oper) {
+                    retVal = new SimpletxBaRead(this.dataBroker, startId, outerListElem,
+                            innerListElem, writesPerTx, listOptions, readWindow);
+                } else if (StartTestInput.Operation.MIXED == oper) {
+                    retVal = new SimpletxBaMixed(this.dataBroker, startId, outerListElem,
+                            innerListElem, writesPerTx, listOptions, mix);
+                } else if (StartTestInput.Operation.UPDATE == oper) {
+                    retVal = new SimpletxBaUpdate(this.dataBroker, startId, outerListElem,
+                            innerListElem, writesPerTx, listOptions, updatePercent);
                 } else {
-                    if (StartTestInput.Operation.DELETE == oper) {
-                        retVal = new SimpletxDomDelete(this.domDataBroker, outerListElem,
-                                innerListElem, writesPerTx);
-                    } else if (StartTestInput.Operation.READ == oper) {
-                        retVal = new SimpletxDomRead(this.domDataBroker, outerListElem,
-                                innerListElem, writesPerTx);
-                    } else {
-                        retVal = new SimpletxDomWrite(this.domDataBroker, oper, outerListElem,
-                                innerListElem,writesPerTx);
-                    }
+                    retVal = new SimpletxBaWrite(this.dataBroker, oper, startId, outerListElem,
+                            innerListElem, writesPerTx, listOptions);
                 }
             } else {
-                if (dataFormat == StartTestInput.DataFormat.BINDINGAWARE) {
-                    if (StartTestInput.Operation.DELETE == oper) {
-                        retVal = new TxchainBaDelete(this.bindingDataBroker, outerListElem,
-                                innerListElem, writesPerTx);
-                    } else if (StartTestInput.Operation.READ == oper) {
-                        retVal = new TxchainBaRead(this.bindingDataBroker,outerListElem,
-                                innerListElem,writesPerTx);
-                    } else {
-                        retVal = new TxchainBaWrite(this.bindingDataBroker, oper, outerListElem,
-                                innerListElem,writesPerTx);
-                    }
+                if (StartTestInput.Operation.DELETE == oper) {
+                    retVal = new SimpletxDomDelete(this.domDataBroker, startId, outerListElem,
+                            innerListElem, writesPerTx, listOptions);
+                } else if (StartTestInput.Operation.READ == oper) {
+                    retVal = new SimpletxDomRead(this.domDataBroker, startId, outerListElem,
+                            innerListElem, writesPerTx, listOptions, readWindow);
+                } else if (StartTestInput.Operation.MIXED == oper) {
+                    retVal = new SimpletxDomMixed(this.domDataBroker, startId, outerListElem,
+                            innerListElem, writesPerTx, listOptions, mix);
+                } else if (StartTestInput.Operation.UPDATE == oper) {
+                    retVal = new SimpletxDomUpdate(this.domDataBroker, startId, outerListElem,
+                            innerListElem, writesPerTx, listOptions, updatePercent);
                 } else {
-                    if (StartTestInput.Operation.DELETE == oper) {
-                        retVal = new TxchainDomDelete(this.domDataBroker, outerListElem,
-                                innerListElem, writesPerTx);
-                    } else if (StartTestInput.Operation.READ == oper) {
-                        retVal = new TxchainDomRead(this.domDataBroker, outerListElem,
-                                innerListElem, writesPerTx);
-
-                    } else {
-                        retVal = new TxchainDomWrite(this.domDataBroker, oper, outerListElem,
-                                innerListElem,writesPerTx);
-                    }
+                    retVal = new SimpletxDomWrite(this.domDataBroker, oper, startId, outerListElem,
+                            innerListElem, writesPerTx, listOptions);
+                }
+            }
+        } else if (txType == StartTestInput.TransactionType.SHARDEDPRODUCER) {
+            // Producer cursors write normalized nodes, so the data format is ignored
+            if (this.domDataTreeService == null) {
+                throw new IllegalStateException("SHARDED-PRODUCER needs a DOMDataTreeService");
+            }
+            // The LISTEN listeners are registered on the data broker, which does not see the shard's writes
+            if (listen) {
+                throw new IllegalArgumentException("SHARDED-PRODUCER does not support LISTEN tests");
+            }
+            if (StartTestInput.Operation.DELETE == oper) {
+                retVal = new ShardedDomDelete(this.domDataTreeService, startId, outerListElem,
+                        innerListElem, writesPerTx, listOptions, maxOutstandingTx);
+            } else if (StartTestInput.Operation.PUT == oper || StartTestInput.Operation.MERGE == oper) {
+                retVal = new ShardedDomWrite(this.domDataTreeService, oper, startId, outerListElem,
+                        innerListElem, writesPerTx, listOptions, maxOutstandingTx);
+            } else {
+                throw new IllegalArgumentException("SHARDED-PRODUCER does not support " + oper + " tests");
+            }
+        } else {
+            if (dataFormat == StartTestInput.DataFormat.BINDINGAWARE) {
+                if (StartTestInput.Operation.DELETE == oper) {
+                    retVal = new TxchainBaDelete(this.bindingDataBroker, startId, outerListElem,
+                            innerListElem, writesPerTx, listOptions, maxOutstandingTx);
+                } else if (StartTestInput.Operation.READ == oper) {
+                    retVal = new TxchainBaRead(this.bindingDataBroker, startId, outerListElem,
+                            innerListElem, writesPerTx, listOptions, readWindow);
+                } else if (StartTestInput.Operation.MIXED == oper) {
+                    retVal = new TxchainBaMixed(this.bindingDataBroker, startId, outerListElem,
+                            innerListElem, writesPerTx, listOptions, mix);
+                } else if (StartTestInput.Operation.UPDATE == oper) {
+                    retVal = new TxchainBaUpdate(this.bindingDataBroker, startId, outerListElem,
+                            innerListElem, writesPerTx, listOptions, updatePercent);
+                } else {
+                    retVal = new TxchainBaWrite(this.bindingDataBroker, oper, startId, outerListElem,
+                            innerListElem, writesPerTx, listOptions, maxOutstandingTx);
+                }
+            } else {
+                if (StartTestInput.Operation.DELETE == oper) {
+                    retVal = new TxchainDomDelete(this.domDataBroker, startId, outerListElem,
+                            innerListElem, writesPerTx, listOptions, maxOutstandingTx);
+                } else if (StartTestInput.Operation.READ == oper) {
+                    retVal = new TxchainDomRead(this.domDataBroker, startId, outerListElem,
+                            innerListElem, writesPerTx, listOptions, readWindow);
+                } else if (StartTestInput.Operation.MIXED == oper) {
+                    retVal = new TxchainDomMixed(this.domDataBroker, startId, outerListElem,
+                            innerListElem, writesPerTx, listOptions, mix);
+                } else if (StartTestInput.Operation.UPDATE == oper) {
+                    retVal = new TxchainDomUpdate(this.domDataBroker, startId, outerListElem,
+                            innerListElem, writesPerTx, listOptions, updatePercent);
+                } else {
+                    retVal = new TxchainDomWrite(this.domDataBroker, oper, startId, outerListElem,
+                            innerListElem, writesPerTx, listOptions, maxOutstandingTx);
                 }
             }
-        } finally {
-            execStatus.set(ExecStatus.Idle);
         }
         return retVal;
     }
+
+    private static final class WriterRun {
+        // Time (in microseconds) the writer spent in the operation
+        final long time;
+        // Bytes allocated by the writer thread, or -1 if not available
+        final long allocatedBytes;
+
+        WriterRun(long time, long allocatedBytes) {
+            this.time = time;
+            this.allocatedBytes = allocatedBytes;
+        }
+    }
+
+    /**
+     * Periodically publishes the progress of a running test to the
+     * operational test-status container.
+     */
+    private final class ProgressReporter implements Runnable {
+        private final long runId;
+        private final List<DatastoreAbstractWriter> dsWriters;
+        private final long startTime = System.nanoTime();
+        private long lastTime = startTime;
+        private long lastCompleted = 0;
+        private boolean stopped = false;
+
+        ProgressReporter(long runId, List<DatastoreAbstractWriter> dsWriters) {
+            this.runId = runId;
+            this.dsWriters = dsWriters;
+        }
+
+        /**
+         * Stops publishing progress. Waits for an update that is in progress,
+         * so that it cannot overwrite the final test status.
+         */
+        synchronized void stop() {
+            stopped = true;
+        }
+
+        @Override
+        public synchronized void run() {
+            if (stopped) {
+                return;
+            }
+
+            final long now = System.nanoTime();
+            long completed = 0;
+            for (DatastoreAbstractWriter dsWriter : dsWriters) {
+                completed += dsWriter.getTxOk() + dsWriter.getTxError();
+            }
+            final long txPerSec = now > lastTime ? (completed - lastCompleted) * 1000000000 / (now - lastTime) : 0;
+            lastTime = now;
+            lastCompleted = completed;
+
+            try {
+                setTestOperData(new TestStatusBuilder()
+                        .setExecStatus(ExecStatus.Executing)
+                        .setTestsCompleted(testsCompleted)
+                        .setRunId(runId)
+                        .setElapsedTime((now - startTime) / 1000000)
+                        .setTxCompleted(completed)
+                        .setTxPerSec(txPerSec)
+                        .build());
+            } catch (IllegalStateException e) {
+                LOG.warn("Failed to publish progress of test run {}", runId, e);
+            }
+        }
+    }
 }
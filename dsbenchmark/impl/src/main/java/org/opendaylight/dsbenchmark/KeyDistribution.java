@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2015 Cisco Systems and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.dsbenchmark;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Determines the order in which a writer accesses the OuterList ids in its
+ * slice. The ids are generated up front, so that picking the next key does
+ * not add to the measured execution time.
+ */
+public final class KeyDistribution {
+    public enum Type {
+        /**
+         * Every id in the slice exactly once, in ascending order.
+         */
+        SEQUENTIAL,
+        /**
+         * Ids drawn uniformly at random, with repetition.
+         */
+        UNIFORM,
+        /**
+         * Ids drawn at random, with repetition, with the probability of the
+         * k-th id in the slice proportional to 1 / k^skew.
+         */
+        ZIPFIAN
+    }
+
+    public static final KeyDistribution SEQUENTIAL = new KeyDistribution(Type.SEQUENTIAL, 0);
+
+    private final Type type;
+    private final double skew;
+
+    public KeyDistribution(Type type, double skew) {
+        if (type == Type.ZIPFIAN && skew < 0) {
+            throw new IllegalArgumentException("Zipfian skew must not be negative: " + skew);
+        }
+        this.type = type;
+        this.skew = skew;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Generates the ids a writer accesses during the test.
+     *
+     * @param startId first id in the writer's slice
+     * @param count number of ids in the writer's slice, which is also the
+     *              number of ids generated
+     * @param seed seed for the random distributions, so that a test run can
+     *             be repeated with the same keys
+     */
+    public int[] generate(int startId, int count, long seed) {
+        final int[] ids = new int[count];
+        switch (type) {
+            case UNIFORM: {
+                final SplittableRandom random = new SplittableRandom(seed);
+                for (int i = 0; i < count; i++) {
+                    ids[i] = startId + random.nextInt(count);
+                }
+                break;
+            }
+            case ZIPFIAN: {
+                final double[] cdf = zipfianCdf(count, skew);
+                final SplittableRandom random = new SplittableRandom(seed);
+                for (int i = 0; i < count; i++) {
+                    final int pos = Arrays.binarySearch(cdf, random.nextDouble());
+                    ids[i] = startId + Math.min(pos >= 0 ? pos : -pos - 1, count - 1);
+                }
+                break;
+            }
+            default:
+                for (int i = 0; i < count; i++) {
+                    ids[i] = startId + i;
+                }
+                break;
+        }
+        return ids;
+    }
+
+    private static double[] zipfianCdf(int count, double skew) {
+        final double[] cdf = new double[count];
+        double sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += 1.0 / Math.pow(i + 1, skew);
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < count; i++) {
+            cdf[i] /= sum;
+        }
+        return cdf;
+    }
+
+    @Override
+    public String toString() {
+        return type == Type.ZIPFIAN ? "KeyDistribution [ZIPFIAN, skew=" + skew + "]" : "KeyDistribution [" + type + "]";
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2015 Cisco Systems and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.dsbenchmark;
+
+/**
+ * Controls how the BaListBuilder and DomListBuilder generate test data.
+ */
+public final class ListBuildOptions {
+    public static final ListBuildOptions DEFAULT = new ListBuildOptions(false, false, 0, 0, 0, null);
+
+    // Deepest nesting supported by the level1..level4 containers in dsbenchmark.yang
+    public static final int MAX_NESTING_DEPTH = 4;
+
+    private final boolean streaming;
+    private final boolean poolLeafValues;
+    private final int valueSize;
+    private final int extraLeaves;
+    private final int nestingDepth;
+    private final WriteTxClock.Stamp writeTxStamp;
+
+    /**
+     * @param streaming generate each outer list element on demand while the
+     *                  list is iterated, instead of building the whole list
+     *                  up front
+     * @param poolLeafValues share the inner list keys and 'name' leaves, which
+     *                  are the same in every outer list element, instead of
+     *                  creating new instances for each element
+     * @param valueSize minimum length of the InnerList values; shorter values
+     *                  are padded
+     * @param extraLeaves number of extra-leaf entries in each InnerList entry
+     * @param nestingDepth number of nested levelN containers in each InnerList
+     *                  entry, up to MAX_NESTING_DEPTH
+     * @param writeTxStamp if not null, set the OuterList 'write-tx' leaf to
+     *                  the stamp's current transaction number when the
+     *                  element is built; only used by LISTEN tests
+     */
+    public ListBuildOptions(boolean streaming, boolean poolLeafValues, int valueSize, int extraLeaves,
+            int nestingDepth, WriteTxClock.Stamp writeTxStamp) {
+        if (nestingDepth < 0 || nestingDepth > MAX_NESTING_DEPTH) {
+            throw new IllegalArgumentException("Nesting depth must be between 0 and " + MAX_NESTING_DEPTH
+                    + ": " + nestingDepth);
+        }
+        this.streaming = streaming;
+        this.poolLeafValues = poolLeafValues;
+        this.valueSize = valueSize;
+        this.extraLeaves = extraLeaves;
+        this.nestingDepth = nestingDepth;
+        this.writeTxStamp = writeTxStamp;
+    }
+
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    public boolean isPoolLeafValues() {
+        return poolLeafValues;
+    }
+
+    public int getExtraLeaves() {
+        return extraLeaves;
+    }
+
+    public int getNestingDepth() {
+        return nestingDepth;
+    }
+
+    /**
+     * Returns the stamp of the writer's transactions, or null if the
+     * elements are not stamped.
+     */
+    public WriteTxClock.Stamp getWriteTxStamp() {
+        return writeTxStamp;
+    }
+
+    /**
+     * Returns the value of the given InnerList entry, "Item-outerId-innerId",
+     * padded to valueSize characters. The same value is used for the entry's
+     * extra leaves and nested containers.
+     */
+    public String itemValue(int outerId, int innerId) {
+        return pad("Item-" + outerId + "-" + innerId);
+    }
+
+    /**
+     * Returns the value written to the given InnerList entry by the given
+     * round of an UPDATE test, padded to valueSize characters.
+     */
+    public String itemValue(int outerId, int innerId, long version) {
+        return pad("Item-" + outerId + "-" + innerId + "-v" + version);
+    }
+
+    private String pad(String value) {
+        if (value.length() >= valueSize) {
+            return value;
+        }
+
+        final StringBuilder sb = new StringBuilder(valueSize).append(value);
+        while (sb.length() < valueSize) {
+            sb.append('.');
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "ListBuildOptions [streaming=" + streaming + ", poolLeafValues=" + poolLeafValues
+                + ", valueSize=" + valueSize + ", extraLeaves=" + extraLeaves + ", nestingDepth=" + nestingDepth
+                + ", writeTxStamp=" + (writeTxStamp != null) + "]";
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2015 Cisco Systems and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.dsbenchmark;
+
+import java.util.SplittableRandom;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.StartTestInput;
+
+/**
+ * Percentages of READ, PUT, MERGE and DELETE transactions in a MIXED test.
+ */
+public final class OperationMix {
+    private final int readPercent;
+    private final int putPercent;
+    private final int mergePercent;
+    private final int deletePercent;
+
+    public OperationMix(int readPercent, int putPercent, int mergePercent, int deletePercent) {
+        if (readPercent < 0 || putPercent < 0 || mergePercent < 0 || deletePercent < 0
+                || readPercent + putPercent + mergePercent + deletePercent != 100) {
+            throw new IllegalArgumentException("Operation percentages must not be negative and must add up to 100: "
+                    + readPercent + "/" + putPercent + "/" + mergePercent + "/" + deletePercent);
+        }
+        this.readPercent = readPercent;
+        this.putPercent = putPercent;
+        this.mergePercent = mergePercent;
+        this.deletePercent = deletePercent;
+    }
+
+    /**
+     * Picks the operation for the next transaction.
+     */
+    public StartTestInput.Operation next(SplittableRandom random) {
+        int pick = random.nextInt(100);
+        if (pick < readPercent) {
+            return StartTestInput.Operation.READ;
+        }
+        pick -= readPercent;
+        if (pick < putPercent) {
+            return StartTestInput.Operation.PUT;
+        }
+        pick -= putPercent;
+        if (pick < mergePercent) {
+            return StartTestInput.Operation.MERGE;
+        }
+        return StartTestInput.Operation.DELETE;
+    }
+
+    @Override
+    public String toString() {
+        return "OperationMix [read=" + readPercent + "%, put=" + putPercent + "%, merge=" + mergePercent
+                + "%, delete=" + deletePercent + "%]";
+    }
+}
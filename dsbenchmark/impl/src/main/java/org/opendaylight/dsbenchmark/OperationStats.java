@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2015 Cisco Systems and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.dsbenchmark;
+
+/**
+ * Results for one operation type in a MIXED test.
+ */
+public final class OperationStats {
+    private long ops = 0;
+    private int txOk = 0;
+    private int txError = 0;
+    private final LatencyHistogram txLatency = new LatencyHistogram();
+
+    /**
+     * Records a completed transaction.
+     *
+     * @param ok whether the transaction succeeded
+     * @param ops number of operations in the transaction
+     * @param latencyNanos latency of the transaction; only recorded if it succeeded
+     */
+    public void record(boolean ok, int ops, long latencyNanos) {
+        this.ops += ops;
+        if (ok) {
+            txOk++;
+            txLatency.record(latencyNanos);
+        } else {
+            txError++;
+        }
+    }
+
+    /**
+     * Adds the results of another writer thread to this one.
+     */
+    public void add(OperationStats other) {
+        ops += other.ops;
+        txOk += other.txOk;
+        txError += other.txError;
+        txLatency.add(other.txLatency);
+    }
+
+    public long getOps() {
+        return ops;
+    }
+
+    public int getTxOk() {
+        return txOk;
+    }
+
+    public int getTxError() {
+        return txError;
+    }
+
+    public LatencyHistogram getTxLatency() {
+        return txLatency;
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2015 Cisco Systems and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.dsbenchmark;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounds the number of transactions a writer has in flight, from their
+ * allocation until their commit completes. A writer calls
+ * {@link #acquire()} right after taking the pacer slot and before it
+ * allocates and fills a transaction, which blocks once the limit is
+ * reached, and {@link #release()} from the commit callback. Time spent
+ * blocked is therefore part of the transaction's latency. The largest number of outstanding transactions seen is kept
+ * as a high-water mark.
+ */
+public final class OutstandingTxLimiter {
+    private final Semaphore permits;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger highWaterMark = new AtomicInteger();
+
+    /**
+     * @param maxOutstanding maximum number of outstanding transactions;
+     *                       0 only tracks the high-water mark
+     */
+    public OutstandingTxLimiter(int maxOutstanding) {
+        this.permits = maxOutstanding > 0 ? new Semaphore(maxOutstanding) : null;
+    }
+
+    public void acquire() {
+        if (permits != null) {
+            permits.acquireUninterruptibly();
+        }
+
+        final int current = outstanding.incrementAndGet();
+        int curMax = highWaterMark.get();
+        while (current > curMax && !highWaterMark.compareAndSet(curMax, current)) {
+            curMax = highWaterMark.get();
+        }
+    }
+
+    public void release() {
+        outstanding.decrementAndGet();
+        if (permits != null) {
+            permits.release();
+        }
+    }
+
+    public int getHighWaterMark() {
+        return highWaterMark.get();
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2015 Cisco Systems and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.dsbenchmark;
+
+import com.google.common.base.Optional;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Issues asynchronous reads while keeping at most a fixed number of them
+ * outstanding. Results are verified and counted in the completion
+ * callbacks, so the caller never blocks on an individual read and the
+ * test measures read throughput rather than read round-trip latency.
+ */
+public final class PipelinedReads {
+    private static final Logger LOG = LoggerFactory.getLogger(PipelinedReads.class);
+
+    private final int window;
+    private final Semaphore permits;
+    private final LatencyHistogram latency;
+    private final TxPacer pacer;
+    private final AtomicInteger readOk = new AtomicInteger();
+    private final AtomicInteger readError = new AtomicInteger();
+
+    public PipelinedReads(int window, LatencyHistogram latency, TxPacer pacer) {
+        this.window = window;
+        this.permits = new Semaphore(window);
+        this.latency = latency;
+        this.pacer = pacer;
+    }
+
+    /**
+     * Issues a single read, blocking first if the in-flight window is full
+     * or, in an open-loop test, until the read is due.
+     *
+     * @param reader issues the read and returns its future
+     * @param verifier checks the data that was read; a read is counted as
+     *                 failed if no data was found or verification fails
+     */
+    public <T> void read(Supplier<? extends ListenableFuture<Optional<T>>> reader, Predicate<? super T> verifier) {
+        permits.acquireUninterruptibly();
+        final long readTime = pacer.acquire();
+        Futures.addCallback(reader.get(), new FutureCallback<Optional<T>>() {
+            @Override
+            public void onSuccess(final Optional<T> result) {
+                latency.record(System.nanoTime() - readTime);
+                if (result != null && result.isPresent() && verifier.test(result.get())) {
+                    readOk.incrementAndGet();
+                } else {
+                    readError.incrementAndGet();
+                }
+                permits.release();
+            }
+
+            @Override
+            public void onFailure(final Throwable t) {
+                LOG.warn("Read failed", t);
+                readError.incrementAndGet();
+                permits.release();
+            }
+        });
+    }
+
+    /**
+     * Blocks until all outstanding reads have completed.
+     */
+    public void awaitCompletion() {
+        permits.acquireUninterruptibly(window);
+        permits.release(window);
+    }
+
+    public int getReadOk() {
+        return readOk.get();
+    }
+
+    public int getReadError() {
+        return readError.get();
+    }
+}
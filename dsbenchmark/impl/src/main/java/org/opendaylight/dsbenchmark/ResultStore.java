@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2015 Cisco Systems and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.dsbenchmark;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only CSV file holding the results of every measured test
+ * iteration, so that they outlive the start-test RPC and can be compared
+ * across controller restarts and upgrades. A file written in an older
+ * format is moved aside before the first result of the current format is
+ * appended.
+ */
+public final class ResultStore {
+    private static final Logger LOG = LoggerFactory.getLogger(ResultStore.class);
+
+    private final Path file;
+
+    public ResultStore(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Returns the store in the Karaf data directory, or in ./data when not
+     * running in Karaf.
+     */
+    public static ResultStore createDefault() {
+        return new ResultStore(Paths.get(System.getProperty("karaf.data", "data"), "dsbenchmark", "results.csv"));
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public synchronized void append(TestResult result) throws IOException {
+        if (Files.exists(file) && !hasCurrentHeader()) {
+            final Path old = file.resolveSibling(file.getFileName() + "." + System.currentTimeMillis());
+            LOG.info("Moving results of an older format from {} to {}", file, old);
+            Files.move(file, old);
+        }
+        final boolean created = !Files.exists(file) || Files.size(file) == 0;
+        if (created && file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            if (created) {
+                writer.write(TestResult.CSV_HEADER);
+                writer.newLine();
+            }
+            writer.write(result.toCsv());
+            writer.newLine();
+        }
+    }
+
+    private boolean hasCurrentHeader() throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            final String header = reader.readLine();
+            return header == null || header.equals(TestResult.CSV_HEADER);
+        }
+    }
+
+    /**
+     * Returns the stored results with the given tag, in the order in which
+     * they were stored. Lines that cannot be parsed, e.g. because an older
+     * version wrote them, are skipped.
+     */
+    public synchronized List<TestResult> read(String tag) throws IOException {
+        final String storedTag = TestResult.sanitizeTag(tag);
+        final List<TestResult> results = new ArrayList<>();
+        if (!Files.exists(file)) {
+            return results;
+        }
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.isEmpty() || line.equals(TestResult.CSV_HEADER)) {
+                continue;
+            }
+            final TestResult result;
+            try {
+                result = TestResult.fromCsv(line);
+            } catch (IllegalArgumentException e) {
+                LOG.warn("Skipping result line in {}: {}", file, e.getMessage());
+                continue;
+            }
+            if (result.getTag().equals(storedTag)) {
+                results.add(result);
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2015 Cisco Systems and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.dsbenchmark;
+
+/**
+ * Mean, sample standard deviation, range and 95% confidence interval of the
+ * mean for a metric measured over several test iterations.
+ */
+public final class SummaryStatistics {
+    // Two-sided 95% quantiles of Student's t distribution for 1..30 degrees of freedom
+    private static final double[] T_95 = {
+        12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+        2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+        2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042
+    };
+    private static final double Z_95 = 1.960;
+
+    private final int samples;
+    private final double mean;
+    private final double stddev;
+    private final long min;
+    private final long max;
+
+    public SummaryStatistics(long[] values) {
+        if (values.length == 0) {
+            throw new IllegalArgumentException("At least one value is required");
+        }
+
+        long minVal = Long.MAX_VALUE;
+        long maxVal = Long.MIN_VALUE;
+        double sum = 0;
+        for (long value : values) {
+            sum += value;
+            minVal = Math.min(minVal, value);
+            maxVal = Math.max(maxVal, value);
+        }
+        final double avg = sum / values.length;
+
+        double squares = 0;
+        for (long value : values) {
+            squares += (value - avg) * (value - avg);
+        }
+
+        this.samples = values.length;
+        this.mean = avg;
+        this.stddev = values.length > 1 ? Math.sqrt(squares / (values.length - 1)) : 0;
+        this.min = minVal;
+        this.max = maxVal;
+    }
+
+    public int getSamples() {
+        return samples;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public double getStddev() {
+        return stddev;
+    }
+
+    public long getMin() {
+        return min;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Returns the half-width of the 95% confidence interval of the mean,
+     * which is 0 for a single sample.
+     */
+    public double getConfidenceHalfWidth() {
+        if (samples < 2) {
+            return 0;
+        }
+        final int dof = samples - 1;
+        final double t = dof <= T_95.length ? T_95[dof - 1] : Z_95;
+        return t * stddev / Math.sqrt(samples);
+    }
+}
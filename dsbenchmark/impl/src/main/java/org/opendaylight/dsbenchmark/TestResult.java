@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2015 Cisco Systems and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.dsbenchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The parameters and results of one measurement iteration of a test run,
+ * as kept in the ResultStore. Each result is stored as one CSV line.
+ *
+ * The parameters are the start-test inputs, by YANG leaf name, with their
+ * defaults filled in. Those that shape the workload make up the test key;
+ * the others only control how the test is run and reported.
+ */
+public final class TestResult {
+    /**
+     * Start-test inputs that shape the workload; results must have the
+     * same values for all of them to be comparable.
+     */
+    static final List<String> WORKLOAD_PARAMETERS = Collections.unmodifiableList(Arrays.asList(
+            "transaction-type", "data-format", "operation", "data-store", "outerElements", "innerElements",
+            "putsPerTx", "writer-threads", "read-window", "list-mode", "pool-leaf-values", "target-rate",
+            "max-outstanding-tx", "key-distribution", "zipf-skew", "read-percent", "put-percent", "merge-percent",
+            "delete-percent", "value-size", "extra-leaves", "nesting-depth", "update-percent", "listeners"));
+    /**
+     * Start-test inputs that are stored, but do not change the workload.
+     */
+    static final List<String> RUN_PARAMETERS = Collections.unmodifiableList(Arrays.asList(
+            "async", "progress-interval", "measure-list-memory", "warmup-iterations", "measurement-iterations",
+            "listener-timeout"));
+    private static final List<String> METRICS = Arrays.asList(
+            "execTime", "opsPerSec", "txOk", "txError", "latencyP50", "latencyP99", "latencyMax");
+    static final String CSV_HEADER;
+    private static final int CSV_FIELDS;
+
+    static {
+        final List<String> columns = new ArrayList<>();
+        columns.addAll(Arrays.asList("timestamp", "runId", "tag"));
+        columns.addAll(WORKLOAD_PARAMETERS);
+        columns.addAll(RUN_PARAMETERS);
+        columns.addAll(METRICS);
+        CSV_HEADER = String.join(",", columns);
+        CSV_FIELDS = columns.size();
+    }
+
+    private final String timestamp;
+    private final long runId;
+    private final String tag;
+    private final Map<String, String> parameters;
+    private final long execTime;
+    private final long opsPerSec;
+    private final long txOk;
+    private final long txError;
+    private final long latencyP50;
+    private final long latencyP99;
+    private final long latencyMax;
+
+    /**
+     * @param tag label of the run; commas and line breaks are replaced,
+     *            since they would break the CSV line
+     * @param parameters start-test inputs by YANG leaf name; inputs missing
+     *            from WORKLOAD_PARAMETERS or RUN_PARAMETERS are stored as
+     *            empty values, and other entries are ignored
+     * @param execTime execution time, in microseconds
+     * @param latencyP50 median transaction latency, in microseconds
+     */
+    public TestResult(String timestamp, long runId, String tag, Map<String, String> parameters, long execTime,
+            long opsPerSec, long txOk, long txError, long latencyP50, long latencyP99, long latencyMax) {
+        this.timestamp = timestamp;
+        this.runId = runId;
+        this.tag = sanitizeTag(tag);
+        final Map<String, String> params = new LinkedHashMap<>();
+        for (String name : WORKLOAD_PARAMETERS) {
+            params.put(name, sanitizeTag(parameters.get(name)));
+        }
+        for (String name : RUN_PARAMETERS) {
+            params.put(name, sanitizeTag(parameters.get(name)));
+        }
+        this.parameters = Collections.unmodifiableMap(params);
+        this.execTime = execTime;
+        this.opsPerSec = opsPerSec;
+        this.txOk = txOk;
+        this.txError = txError;
+        this.latencyP50 = latencyP50;
+        this.latencyP99 = latencyP99;
+        this.latencyMax = latencyMax;
+    }
+
+    /**
+     * Returns the tag as it is stored.
+     */
+    static String sanitizeTag(String tag) {
+        return tag == null ? "" : tag.replaceAll("[,\r\n]", "_");
+    }
+
+    /**
+     * Parses a line written by toCsv().
+     *
+     * @throws IllegalArgumentException if the line does not have the
+     *         current format, e.g. if an older version wrote it
+     */
+    static TestResult fromCsv(String line) {
+        final String[] f = line.split(",", -1);
+        if (f.length != CSV_FIELDS) {
+            throw new IllegalArgumentException("Malformed result line: " + line);
+        }
+
+        int field = 3;
+        final Map<String, String> params = new LinkedHashMap<>();
+        for (String name : WORKLOAD_PARAMETERS) {
+            params.put(name, f[field++]);
+        }
+        for (String name : RUN_PARAMETERS) {
+            params.put(name, f[field++]);
+        }
+        return new TestResult(f[0], Long.parseLong(f[1]), f[2], params, Long.parseLong(f[field]),
+                Long.parseLong(f[field + 1]), Long.parseLong(f[field + 2]), Long.parseLong(f[field + 3]),
+                Long.parseLong(f[field + 4]), Long.parseLong(f[field + 5]), Long.parseLong(f[field + 6]));
+    }
+
+    String toCsv() {
+        final List<String> fields = new ArrayList<>(CSV_FIELDS);
+        fields.add(timestamp);
+        fields.add(String.valueOf(runId));
+        fields.add(tag);
+        fields.addAll(parameters.values());
+        fields.addAll(Arrays.asList(String.valueOf(execTime), String.valueOf(opsPerSec), String.valueOf(txOk),
+                String.valueOf(txError), String.valueOf(latencyP50), String.valueOf(latencyP99),
+                String.valueOf(latencyMax)));
+        return String.join(",", fields);
+    }
+
+    /**
+     * Returns the test parameters that results must share to be comparable:
+     * every workload-shaping start-test input, as name=value pairs.
+     */
+    public String getTestKey() {
+        final List<String> pairs = new ArrayList<>(WORKLOAD_PARAMETERS.size());
+        for (String name : WORKLOAD_PARAMETERS) {
+            pairs.add(name + "=" + parameters.get(name));
+        }
+        return String.join("/", pairs);
+    }
+
+    public String getTimestamp() {
+        return timestamp;
+    }
+
+    public long getRunId() {
+        return runId;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    /**
+     * Returns the stored start-test inputs, by YANG leaf name.
+     */
+    public Map<String, String> getParameters() {
+        return parameters;
+    }
+
+    public long getExecTime() {
+        return execTime;
+    }
+
+    public long getOpsPerSec() {
+        return opsPerSec;
+    }
+
+    public long getTxOk() {
+        return txOk;
+    }
+
+    public long getTxError() {
+        return txError;
+    }
+
+    public long getLatencyP50() {
+        return latencyP50;
+    }
+
+    public long getLatencyP99() {
+        return latencyP99;
+    }
+
+    public long getLatencyMax() {
+        return latencyMax;
+    }
+}
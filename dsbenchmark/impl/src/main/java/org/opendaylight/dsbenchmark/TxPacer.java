@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2015 Cisco Systems and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.dsbenchmark;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Schedules transactions on a fixed timeline for open-loop load tests.
+ * The intended start time of the n-th transaction is start + n / rate,
+ * regardless of how long the previous transactions took. A writer that
+ * falls behind the timeline does not skip or delay slots; the returned
+ * start times are then in the past, so latencies measured from them
+ * include the time the transaction had to wait for its turn (avoiding
+ * coordinated omission).
+ *
+ * <p>
+ * A pacer is used by a single writer thread and is not thread-safe.
+ */
+public final class TxPacer {
+    private final double intervalNanos;
+    private long startTime;
+    private long scheduled = 0;
+
+    /**
+     * @param txPerSec target rate; 0 disables pacing
+     */
+    public TxPacer(double txPerSec) {
+        this.intervalNanos = txPerSec > 0 ? 1000000000.0 / txPerSec : 0;
+    }
+
+    public boolean isPaced() {
+        return intervalNanos > 0;
+    }
+
+    /**
+     * Waits until the intended start time of the next transaction.
+     *
+     * @return the intended start time of the transaction (as System.nanoTime()),
+     *         or the current time if pacing is disabled
+     */
+    public long acquire() {
+        if (!isPaced()) {
+            return System.nanoTime();
+        }
+        if (scheduled == 0) {
+            startTime = System.nanoTime();
+        }
+
+        final long intended = startTime + (long) (scheduled++ * intervalNanos);
+        long now = System.nanoTime();
+        while (now < intended) {
+            LockSupport.parkNanos(intended - now);
+            now = System.nanoTime();
+        }
+        return intended;
+    }
+}
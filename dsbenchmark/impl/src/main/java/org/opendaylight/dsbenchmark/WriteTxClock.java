@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2015 Cisco Systems and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.dsbenchmark;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the System.nanoTime() at which each transaction of a LISTEN test
+ * was submitted. The OuterList elements a transaction writes carry the
+ * transaction's number in their 'write-tx' leaf, so a listener can measure
+ * the delivery latency of a change from the submit of the transaction that
+ * made it, rather than from the time the element was built.
+ */
+public final class WriteTxClock {
+    private final AtomicLong nextTx = new AtomicLong();
+    private final Map<Long, Long> submitTimes = new ConcurrentHashMap<>();
+
+    /**
+     * Returns a stamp for one writer thread.
+     */
+    public Stamp newStamp() {
+        return new Stamp();
+    }
+
+    /**
+     * Returns the time at which the given transaction was submitted, or null
+     * if it is not a transaction of this test.
+     */
+    public Long getSubmitTime(long tx) {
+        return submitTimes.get(tx);
+    }
+
+    /**
+     * Numbers the transactions of one writer thread. The elements the writer
+     * builds are stamped with the current transaction number, which moves to
+     * a new number when the transaction is submitted. A stamp is used by a
+     * single writer thread and is not thread-safe.
+     */
+    public final class Stamp {
+        private long tx = nextTx.getAndIncrement();
+
+        Stamp() {
+        }
+
+        /**
+         * Returns the number of the transaction the writer is filling.
+         */
+        public long currentTx() {
+            return tx;
+        }
+
+        /**
+         * Records the submit time of the current transaction and moves on to
+         * the next one. Called right before the transaction is submitted, so
+         * that the time is known when the change is delivered.
+         */
+        public void submitted() {
+            submitTimes.put(tx, System.nanoTime());
+            tx = nextTx.getAndIncrement();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2015 Cisco Systems and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.dsbenchmark.listener;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.dsbenchmark.LatencyHistogram;
+import org.opendaylight.dsbenchmark.WriteTxClock;
+
+/**
+ * Base class for the data tree change listeners of a LISTEN test. Every
+ * OuterList element written by a LISTEN test carries the number of the
+ * transaction that wrote it, so the listener can record how long it took
+ * from the submit of that transaction until the change was delivered.
+ */
+public abstract class AbstractLatencyListener {
+    private final LatencyHistogram deliveryLatency = new LatencyHistogram();
+    private final CountDownLatch pendingChanges;
+    private final WriteTxClock writeTxClock;
+
+    // Notifications for one listener are delivered one at a time, but the
+    // counters are read by the test thread
+    private volatile long events = 0;
+    private volatile long changes = 0;
+    private volatile long lastDeliveryTime = 0;
+
+    /**
+     * @param expectedChanges number of OuterList changes the test writes
+     * @param writeTxClock submit times of the test's transactions
+     */
+    protected AbstractLatencyListener(long expectedChanges, WriteTxClock writeTxClock) {
+        this.pendingChanges = new CountDownLatch((int) Math.min(Integer.MAX_VALUE, expectedChanges));
+        this.writeTxClock = writeTxClock;
+    }
+
+    protected void recordEvent() {
+        events++;
+    }
+
+    /**
+     * Records the delivery of a change to an OuterList element written by
+     * the given transaction. Changes made by transactions of other tests
+     * are ignored.
+     */
+    protected void recordChange(long writeTx, long deliveryTime) {
+        final Long submitTime = writeTxClock.getSubmitTime(writeTx);
+        if (submitTime == null) {
+            return;
+        }
+        deliveryLatency.record(deliveryTime - submitTime);
+        lastDeliveryTime = deliveryTime;
+        changes++;
+        pendingChanges.countDown();
+    }
+
+    /**
+     * Waits until the listener has received the expected number of changes.
+     *
+     * @return true if all changes were received before the timeout elapsed
+     */
+    public boolean awaitChanges(long timeout, TimeUnit unit) throws InterruptedException {
+        return pendingChanges.await(timeout, unit);
+    }
+
+    public long getEvents() {
+        return events;
+    }
+
+    public long getChanges() {
+        return changes;
+    }
+
+    /**
+     * Returns the System.nanoTime() at which the last change was received,
+     * or 0 if no change has been received.
+     */
+    public long getLastDeliveryTime() {
+        return lastDeliveryTime;
+    }
+
+    public LatencyHistogram getDeliveryLatency() {
+        return deliveryLatency;
+    }
+}
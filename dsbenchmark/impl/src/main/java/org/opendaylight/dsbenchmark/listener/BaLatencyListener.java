@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2015 Cisco Systems and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.dsbenchmark.listener;
+
+import java.util.Collection;
+import org.opendaylight.controller.md.sal.binding.api.DataTreeChangeListener;
+import org.opendaylight.controller.md.sal.binding.api.DataTreeModification;
+import org.opendaylight.dsbenchmark.WriteTxClock;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.OuterList;
+
+/**
+ * Binding-aware LISTEN test listener, registered on the wildcarded OuterList.
+ */
+public class BaLatencyListener extends AbstractLatencyListener implements DataTreeChangeListener<OuterList> {
+
+    public BaLatencyListener(long expectedChanges, WriteTxClock writeTxClock) {
+        super(expectedChanges, writeTxClock);
+    }
+
+    @Override
+    public void onDataTreeChanged(Collection<DataTreeModification<OuterList>> modifications) {
+        final long now = System.nanoTime();
+        recordEvent();
+        for (DataTreeModification<OuterList> modification : modifications) {
+            // Deleted elements and elements not written by a LISTEN test carry no transaction number
+            final OuterList outerList = modification.getRootNode().getDataAfter();
+            if (outerList != null && outerList.getWriteTx() != null) {
+                recordChange(outerList.getWriteTx(), now);
+            }
+        }
+    }
+}
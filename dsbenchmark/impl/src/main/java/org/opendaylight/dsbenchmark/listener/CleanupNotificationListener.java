@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2015 Cisco Systems and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.dsbenchmark.listener;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.controller.md.sal.dom.api.DOMDataTreeChangeListener;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.OuterList;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+
+/**
+ * Listener on the test-exec container, registered while the store is being
+ * cleaned up, which tells when the cleanup has been notified to a listener
+ * at all. It says nothing about other listeners on test-exec, which may be
+ * notified earlier or later. The listener is binding-independent, so that
+ * checking a large OuterList does not have to deserialize it.
+ */
+public class CleanupNotificationListener implements DOMDataTreeChangeListener {
+    private static final NodeIdentifier OUTER_LIST = new NodeIdentifier(OuterList.QNAME);
+
+    private final CountDownLatch emptied = new CountDownLatch(1);
+
+    @Override
+    public void onDataTreeChanged(Collection<DataTreeCandidate> changes) {
+        for (DataTreeCandidate change : changes) {
+            final Optional<NormalizedNode<?, ?>> testExec = change.getRootNode().getDataAfter();
+            if (!testExec.isPresent() || isEmpty(((ContainerNode) testExec.get()).getChild(OUTER_LIST))) {
+                emptied.countDown();
+            }
+        }
+    }
+
+    private static boolean isEmpty(Optional<DataContainerChild<? extends PathArgument, ?>> outerList) {
+        return !outerList.isPresent() || ((MapNode) outerList.get()).getValue().isEmpty();
+    }
+
+    /**
+     * Waits until the listener has seen the test-exec container without
+     * any OuterList elements.
+     *
+     * @return true if that happened before the timeout elapsed
+     */
+    public boolean awaitEmpty(long timeout, TimeUnit unit) throws InterruptedException {
+        return emptied.await(timeout, unit);
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2015 Cisco Systems and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.dsbenchmark.listener;
+
+import java.util.Collection;
+import java.util.Optional;
+import org.opendaylight.controller.md.sal.dom.api.DOMDataTreeChangeListener;
+import org.opendaylight.dsbenchmark.WriteTxClock;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.OuterList;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNode;
+
+/**
+ * Binding-independent LISTEN test listener, registered on the OuterList map
+ * node. Each notification holds the modified OuterList entries as children
+ * of the candidate's root node.
+ */
+public class DomLatencyListener extends AbstractLatencyListener implements DOMDataTreeChangeListener {
+    private static final NodeIdentifier OL_WRITE_TX = new NodeIdentifier(QName.create(OuterList.QNAME, "write-tx"));
+
+    public DomLatencyListener(long expectedChanges, WriteTxClock writeTxClock) {
+        super(expectedChanges, writeTxClock);
+    }
+
+    @Override
+    public void onDataTreeChanged(Collection<DataTreeCandidate> changes) {
+        final long now = System.nanoTime();
+        recordEvent();
+        for (DataTreeCandidate change : changes) {
+            for (DataTreeCandidateNode entry : change.getRootNode().getChildNodes()) {
+                // Deleted elements and elements not written by a LISTEN test carry no transaction number
+                final Optional<NormalizedNode<?, ?>> dataAfter = entry.getDataAfter();
+                if (dataAfter.isPresent() && dataAfter.get() instanceof MapEntryNode) {
+                    final Optional<DataContainerChild<? extends PathArgument, ?>> writeTx =
+                            ((MapEntryNode) dataAfter.get()).getChild(OL_WRITE_TX);
+                    if (writeTx.isPresent()) {
+                        recordChange((Long) writeTx.get().getValue(), now);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2015 Cisco Systems and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.dsbenchmark.sharded;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.Collections;
+import java.util.concurrent.ExecutionException;
+import org.opendaylight.dsbenchmark.DatastoreAbstractWriter;
+import org.opendaylight.dsbenchmark.ListBuildOptions;
+import org.opendaylight.dsbenchmark.OutstandingTxLimiter;
+import org.opendaylight.mdsal.common.api.CommitInfo;
+import org.opendaylight.mdsal.dom.api.DOMDataTreeCursorAwareTransaction;
+import org.opendaylight.mdsal.dom.api.DOMDataTreeIdentifier;
+import org.opendaylight.mdsal.dom.api.DOMDataTreeProducer;
+import org.opendaylight.mdsal.dom.api.DOMDataTreeService;
+import org.opendaylight.mdsal.dom.api.DOMDataTreeWriteCursor;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.StartTestInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.OuterList;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class ShardedDomDelete extends DatastoreAbstractWriter {
+    private static final Logger LOG = LoggerFactory.getLogger(ShardedDomDelete.class);
+    private static final NodeIdentifier OUTER_LIST = new NodeIdentifier(OuterList.QNAME);
+    private static final QName OL_ID = QName.create(OuterList.QNAME, "id");
+
+    private final DOMDataTreeService dataTreeService;
+    private final OutstandingTxLimiter outstandingTx;
+
+    public ShardedDomDelete(DOMDataTreeService dataTreeService, int startId, int outerListElem,
+            int innerListElem, long writesPerTx, ListBuildOptions listOptions, int maxOutstandingTx) {
+        super(StartTestInput.Operation.DELETE, startId, outerListElem, innerListElem, writesPerTx, listOptions);
+        this.outstandingTx = new OutstandingTxLimiter(maxOutstandingTx);
+        this.dataTreeService = dataTreeService;
+        LOG.info("Created ShardedDomDelete");
+    }
+
+    @Override
+    public void createList() {
+        LOG.info("ShardedDomDelete: creating data in the data store");
+
+        // Dump the whole list into the data store in a single transaction
+        // with <outerListElem> PUTs on the transaction
+        ShardedDomWrite dd = new ShardedDomWrite(dataTreeService,
+                                                 StartTestInput.Operation.PUT,
+                                                 startId,
+                                                 outerListElem,
+                                                 innerListElem,
+                                                 outerListElem,
+                                                 listOptions,
+                                                 0);
+        dd.setDataStores(dataStores);
+        dd.createList();
+        dd.executeList();
+    }
+
+    @Override
+    public void executeList() {
+        int txSubmitted = 0;
+        int writeCnt = 0;
+
+        final DOMDataTreeIdentifier subtree = ShardedDomWrite.testExecSubtree(dataStores[0]);
+        final DOMDataTreeProducer producer = dataTreeService.createProducer(Collections.singleton(subtree));
+        DOMDataTreeCursorAwareTransaction tx = null;
+        DOMDataTreeWriteCursor cursor = null;
+        long txStart = 0;
+
+        for (int l : outerListIds) {
+            if (writeCnt == 0) {
+                txStart = pacer.acquire();
+                outstandingTx.acquire();
+                tx = producer.createTransaction(false);
+                cursor = tx.createCursor(subtree);
+                cursor.enter(OUTER_LIST);
+            }
+
+            cursor.delete(new NodeIdentifierWithPredicates(OuterList.QNAME, OL_ID, l));
+
+            writeCnt++;
+
+            if (writeCnt == writesPerTx) {
+                txSubmitted++;
+                cursor.close();
+                final long startTime = txStart;
+                tx.commit().addCallback(new FutureCallback<CommitInfo>() {
+                    @Override
+                    public void onSuccess(final CommitInfo result) {
+                        txLatency.record(System.nanoTime() - startTime);
+                        txOk.incrementAndGet();
+                        outstandingTx.release();
+                    }
+                    @Override
+                    public void onFailure(final Throwable t) {
+                        LOG.error("Transaction failed, {}", t);
+                        txError.incrementAndGet();
+                        outstandingTx.release();
+                    }
+                }, MoreExecutors.directExecutor());
+                writeCnt = 0;
+            }
+        }
+
+        // Commit the outstanding transaction even if it's empty and wait for it to finish
+        if (writeCnt == 0) {
+            txStart = pacer.acquire();
+            outstandingTx.acquire();
+            tx = producer.createTransaction(false);
+            cursor = tx.createCursor(subtree);
+            cursor.enter(OUTER_LIST);
+        }
+        cursor.close();
+        try {
+            txSubmitted++;
+            tx.commit().get();
+            txLatency.record(System.nanoTime() - txStart);
+            txOk.incrementAndGet();
+        } catch (InterruptedException | ExecutionException e) {
+            LOG.error("Transaction failed", e);
+            txError.incrementAndGet();
+        }
+        outstandingTx.release();
+        ShardedDomWrite.closeProducer(producer);
+        LOG.info("Transactions: submitted {}, completed {}", txSubmitted, (txOk.get() + txError.get()));
+    }
+
+    @Override
+    public int getOutstandingTxHighWater() {
+        return outstandingTx.getHighWaterMark();
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2015 Cisco Systems and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.dsbenchmark.sharded;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.concurrent.ExecutionException;
+import org.opendaylight.dsbenchmark.DatastoreAbstractWriter;
+import org.opendaylight.dsbenchmark.DomListBuilder;
+import org.opendaylight.dsbenchmark.ListBuildOptions;
+import org.opendaylight.dsbenchmark.OutstandingTxLimiter;
+import org.opendaylight.mdsal.common.api.CommitInfo;
+import org.opendaylight.mdsal.common.api.LogicalDatastoreType;
+import org.opendaylight.mdsal.dom.api.DOMDataTreeCursorAwareTransaction;
+import org.opendaylight.mdsal.dom.api.DOMDataTreeIdentifier;
+import org.opendaylight.mdsal.dom.api.DOMDataTreeProducer;
+import org.opendaylight.mdsal.dom.api.DOMDataTreeProducerException;
+import org.opendaylight.mdsal.dom.api.DOMDataTreeService;
+import org.opendaylight.mdsal.dom.api.DOMDataTreeWriteCursor;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.StartTestInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.TestExec;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.OuterList;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * PUTs or MERGEs the OuterList through a DOMDataTreeProducer: each
+ * transaction opens a write cursor on the test-exec container and writes
+ * writesPerTx elements through it. Producer transactions are committed in
+ * order, like transactions on a chain.
+ */
+public class ShardedDomWrite extends DatastoreAbstractWriter {
+    private static final Logger LOG = LoggerFactory.getLogger(ShardedDomWrite.class);
+    private static final NodeIdentifier OUTER_LIST = new NodeIdentifier(OuterList.QNAME);
+
+    private final DOMDataTreeService dataTreeService;
+    private final OutstandingTxLimiter outstandingTx;
+    private Iterable<MapEntryNode> list;
+
+    public ShardedDomWrite(DOMDataTreeService dataTreeService, StartTestInput.Operation oper, int startId,
+            int outerListElem, int innerListElem, long writesPerTx, ListBuildOptions listOptions,
+            int maxOutstandingTx) {
+        super(oper, startId, outerListElem, innerListElem, writesPerTx, listOptions);
+        this.outstandingTx = new OutstandingTxLimiter(maxOutstandingTx);
+        this.dataTreeService = dataTreeService;
+        LOG.info("Created ShardedDomWrite");
+    }
+
+    @Override
+    public void createList() {
+        list = DomListBuilder.buildOuterList(this.outerListIds, this.innerListElem, listOptions);
+    }
+
+    @Override
+    public void executeList() {
+        int txSubmitted = 0;
+        int writeCnt = 0;
+
+        final DOMDataTreeIdentifier subtree = testExecSubtree(dataStores[0]);
+        final DOMDataTreeProducer producer = dataTreeService.createProducer(Collections.singleton(subtree));
+        DOMDataTreeCursorAwareTransaction tx = null;
+        DOMDataTreeWriteCursor cursor = null;
+        long txStart = 0;
+
+        final Iterator<MapEntryNode> elements = this.list.iterator();
+        while (elements.hasNext()) {
+            if (writeCnt == 0) {
+                txStart = pacer.acquire();
+                outstandingTx.acquire();
+                tx = producer.createTransaction(false);
+                cursor = tx.createCursor(subtree);
+                cursor.enter(OUTER_LIST);
+            }
+            final MapEntryNode element = elements.next();
+            if (oper == StartTestInput.Operation.PUT) {
+                cursor.write(element.getIdentifier(), element);
+            } else {
+                cursor.merge(element.getIdentifier(), element);
+            }
+
+            writeCnt++;
+
+            if (writeCnt == writesPerTx) {
+                txSubmitted++;
+                cursor.close();
+                final long startTime = txStart;
+                tx.commit().addCallback(new FutureCallback<CommitInfo>() {
+                    @Override
+                    public void onSuccess(final CommitInfo result) {
+                        txLatency.record(System.nanoTime() - startTime);
+                        txOk.incrementAndGet();
+                        outstandingTx.release();
+                    }
+                    @Override
+                    public void onFailure(final Throwable t) {
+                        LOG.error("Transaction failed, {}", t);
+                        txError.incrementAndGet();
+                        outstandingTx.release();
+                    }
+                }, MoreExecutors.directExecutor());
+                writeCnt = 0;
+            }
+        }
+
+        // Commit the outstanding transaction even if it's empty and wait for it to finish;
+        // the producer commits in order, so all earlier transactions are done as well
+        if (writeCnt == 0) {
+            txStart = pacer.acquire();
+            outstandingTx.acquire();
+            tx = producer.createTransaction(false);
+            cursor = tx.createCursor(subtree);
+            cursor.enter(OUTER_LIST);
+        }
+        cursor.close();
+        try {
+            txSubmitted++;
+            tx.commit().get();
+            txLatency.record(System.nanoTime() - txStart);
+            txOk.incrementAndGet();
+        } catch (InterruptedException | ExecutionException e) {
+            LOG.error("Transaction failed", e);
+            txError.incrementAndGet();
+        }
+        outstandingTx.release();
+        closeProducer(producer);
+        LOG.info("Transactions: submitted {}, completed {}", txSubmitted, (txOk.get() + txError.get()));
+    }
+
+    @Override
+    public int getOutstandingTxHighWater() {
+        return outstandingTx.getHighWaterMark();
+    }
+
+    /**
+     * Returns the test-exec subtree of the given data store, as seen by the
+     * DOMDataTreeService.
+     */
+    static DOMDataTreeIdentifier testExecSubtree(
+            org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType dataStore) {
+        return new DOMDataTreeIdentifier(LogicalDatastoreType.valueOf(dataStore.name()),
+                YangInstanceIdentifier.of(TestExec.QNAME));
+    }
+
+    static void closeProducer(DOMDataTreeProducer producer) {
+        try {
+            producer.close();
+        } catch (DOMDataTreeProducerException e) {
+            LOG.error("Exception closing producer, {}", e);
+        }
+    }
+}
@@ -14,6 +14,7 @@ import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
 import org.opendaylight.dsbenchmark.DatastoreAbstractWriter;
+import org.opendaylight.dsbenchmark.ListBuildOptions;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.StartTestInput;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.TestExec;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.OuterList;
@@ -26,8 +27,9 @@ public class SimpletxBaDelete extends DatastoreAbstractWriter {
     private static final Logger LOG = (Logger) LoggerFactory.getLogger(SimpletxBaDelete.class);
     private DataBroker dataBroker;
 
-    public SimpletxBaDelete(DataBroker dataBroker, int outerListElem, int innerListElem, long writesPerTx) {
-        super(StartTestInput.Operation.DELETE, outerListElem, innerListElem, writesPerTx);
+    public SimpletxBaDelete(DataBroker dataBroker, int startId, int outerListElem,
+                            int innerListElem, long writesPerTx, ListBuildOptions listOptions) {
+        super(StartTestInput.Operation.DELETE, startId, outerListElem, innerListElem, writesPerTx, listOptions);
         this.dataBroker = dataBroker;
         LOG.info("Created SimpletxBaDelete");
     }
@@ -39,38 +41,50 @@ public class SimpletxBaDelete extends DatastoreAbstractWriter {
         // with <outerListElem> PUTs on the transaction
         SimpletxBaWrite dd = new SimpletxBaWrite(dataBroker,
                                                  StartTestInput.Operation.PUT,
+                                                 startId,
                                                  outerListElem,
                                                  innerListElem,
-                                                 outerListElem);
+                                                 outerListElem,
+                                                 listOptions);
+        dd.setDataStores(dataStores);
         dd.createList();
         dd.executeList();
     }
 
     @Override
     public void executeList() {
-            WriteTransaction tx = dataBroker.newWriteOnlyTransaction();
+            WriteTransaction tx = null;
+            long txStart = 0;
             long putCnt = 0;
 
-            for (long l = 0; l < outerListElem; l++) {
+            for (int l : outerListIds) {
+                if (putCnt == 0) {
+                    txStart = pacer.acquire();
+                    tx = dataBroker.newWriteOnlyTransaction();
+                }
+
                 InstanceIdentifier<OuterList> iid = InstanceIdentifier.create(TestExec.class)
-                                                        .child(OuterList.class, new OuterListKey((int)l));
-                tx.delete(LogicalDatastoreType.CONFIGURATION, iid);
+                                                        .child(OuterList.class, new OuterListKey(l));
+                for (LogicalDatastoreType dataStore : dataStores) {
+                    tx.delete(dataStore, iid);
+                }
                 putCnt++;
                 if (putCnt == writesPerTx) {
                     try {
                         tx.submit().checkedGet();
-                        txOk++;
+                        txLatency.record(System.nanoTime() - txStart);
+                        txOk.incrementAndGet();
                     } catch (TransactionCommitFailedException e) {
                         LOG.error("Transaction failed: {}", e.toString());
-                        txError++;
+                        txError.incrementAndGet();
                     }
-                    tx = dataBroker.newWriteOnlyTransaction();
                     putCnt = 0;
                 }
             }
             if (putCnt != 0) {
                 try {
                     tx.submit().checkedGet();
+                    txLatency.record(System.nanoTime() - txStart);
                 } catch (TransactionCommitFailedException e) {
                     LOG.error("Transaction failed: {}", e.toString());
                 }
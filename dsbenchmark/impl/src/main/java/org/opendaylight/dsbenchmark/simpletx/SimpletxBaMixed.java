@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2015 Cisco Systems and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.dsbenchmark.simpletx;
+
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.ReadOnlyTransaction;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
+import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
+import org.opendaylight.dsbenchmark.BaListBuilder;
+import org.opendaylight.dsbenchmark.DatastoreAbstractMixed;
+import org.opendaylight.dsbenchmark.ListBuildOptions;
+import org.opendaylight.dsbenchmark.OperationMix;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.StartTestInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.TestExec;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.OuterList;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.OuterListKey;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class SimpletxBaMixed extends DatastoreAbstractMixed<OuterList> {
+    private static final Logger LOG = LoggerFactory.getLogger(SimpletxBaMixed.class);
+    private final DataBroker dataBroker;
+    private WriteTransaction tx;
+
+    public SimpletxBaMixed(DataBroker dataBroker, int startId, int outerListElem, int innerListElem,
+                           long writesPerTx, ListBuildOptions listOptions, OperationMix mix) {
+        super(startId, outerListElem, innerListElem, writesPerTx, listOptions, mix);
+        this.dataBroker = dataBroker;
+        LOG.info("Created SimpletxBaMixed");
+    }
+
+    @Override
+    protected void prepopulate() {
+        LOG.info("SimpletxBaMixed: creating data in the data store");
+        // Dump the whole list into the data store in a single transaction
+        // with <outerListElem> PUTs on the transaction
+        SimpletxBaWrite dd = new SimpletxBaWrite(dataBroker,
+                StartTestInput.Operation.PUT,
+                startId,
+                outerListElem,
+                innerListElem,
+                outerListElem,
+                listOptions);
+        dd.setDataStores(dataStores);
+        dd.createList();
+        dd.executeList();
+    }
+
+    @Override
+    protected Iterable<OuterList> buildList(int[] ids) {
+        return BaListBuilder.buildOuterList(ids, innerListElem, listOptions);
+    }
+
+    @Override
+    protected boolean read(int id) {
+        final ReadOnlyTransaction readTx = dataBroker.newReadOnlyTransaction();
+        try {
+            readTx.read(dataStores[0], outerListIid(id)).checkedGet();
+            return true;
+        } catch (ReadFailedException e) {
+            LOG.error("Read failed: {}", e.toString());
+            return false;
+        } finally {
+            readTx.close();
+        }
+    }
+
+    @Override
+    protected void write(StartTestInput.Operation op, int id, OuterList element) {
+        if (tx == null) {
+            tx = dataBroker.newWriteOnlyTransaction();
+        }
+        if (op == StartTestInput.Operation.PUT) {
+            for (LogicalDatastoreType dataStore : dataStores) {
+                tx.put(dataStore, outerListIid(id), element);
+            }
+        } else if (op == StartTestInput.Operation.MERGE) {
+            for (LogicalDatastoreType dataStore : dataStores) {
+                tx.merge(dataStore, outerListIid(id), element);
+            }
+        } else {
+            for (LogicalDatastoreType dataStore : dataStores) {
+                tx.delete(dataStore, outerListIid(id));
+            }
+        }
+    }
+
+    @Override
+    protected boolean submit() {
+        try {
+            tx.submit().checkedGet();
+            return true;
+        } catch (TransactionCommitFailedException e) {
+            LOG.error("Transaction failed: {}", e.toString());
+            return false;
+        } finally {
+            tx = null;
+        }
+    }
+
+    private static InstanceIdentifier<OuterList> outerListIid(int id) {
+        return InstanceIdentifier.create(TestExec.class).child(OuterList.class, new OuterListKey(id));
+    }
+}
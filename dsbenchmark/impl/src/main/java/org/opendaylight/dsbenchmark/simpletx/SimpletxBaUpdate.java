@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2015 Cisco Systems and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.dsbenchmark.simpletx;
+
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
+import org.opendaylight.dsbenchmark.DatastoreAbstractUpdate;
+import org.opendaylight.dsbenchmark.ListBuildOptions;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.StartTestInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.TestExec;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.OuterList;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.OuterListKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.outer.list.InnerList;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.outer.list.InnerListBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.outer.list.InnerListKey;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class SimpletxBaUpdate extends DatastoreAbstractUpdate {
+    private static final Logger LOG = LoggerFactory.getLogger(SimpletxBaUpdate.class);
+    private final DataBroker dataBroker;
+    private WriteTransaction tx;
+
+    public SimpletxBaUpdate(DataBroker dataBroker, int startId, int outerListElem, int innerListElem,
+                            long writesPerTx, ListBuildOptions listOptions, int updatePercent) {
+        super(startId, outerListElem, innerListElem, writesPerTx, listOptions, updatePercent);
+        this.dataBroker = dataBroker;
+        LOG.info("Created SimpletxBaUpdate");
+    }
+
+    @Override
+    protected void prepopulate() {
+        LOG.info("SimpletxBaUpdate: creating data in the data store");
+        // Dump the whole list into the data store in a single transaction
+        // with <outerListElem> PUTs on the transaction
+        SimpletxBaWrite dd = new SimpletxBaWrite(dataBroker,
+                StartTestInput.Operation.PUT,
+                startId,
+                outerListElem,
+                innerListElem,
+                outerListElem,
+                listOptions);
+        dd.setDataStores(dataStores);
+        dd.createList();
+        dd.executeList();
+    }
+
+    @Override
+    protected void update(int outerId, int innerId, String value) {
+        if (tx == null) {
+            tx = dataBroker.newWriteOnlyTransaction();
+        }
+        final InnerListKey key = new InnerListKey(innerId);
+        final InnerList innerList = new InnerListBuilder()
+                .withKey(key)
+                .setName(innerId)
+                .setValue(value)
+                .build();
+        for (LogicalDatastoreType dataStore : dataStores) {
+            tx.merge(dataStore, innerListIid(outerId, key), innerList);
+        }
+    }
+
+    @Override
+    protected boolean submit() {
+        try {
+            tx.submit().checkedGet();
+            return true;
+        } catch (TransactionCommitFailedException e) {
+            LOG.error("Transaction failed: {}", e.toString());
+            return false;
+        } finally {
+            tx = null;
+        }
+    }
+
+    private static InstanceIdentifier<InnerList> innerListIid(int outerId, InnerListKey key) {
+        return InstanceIdentifier.create(TestExec.class).child(OuterList.class, new OuterListKey(outerId))
+                .child(InnerList.class, key);
+    }
+}
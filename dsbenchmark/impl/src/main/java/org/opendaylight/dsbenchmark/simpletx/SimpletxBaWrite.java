@@ -8,14 +8,14 @@
 
 package org.opendaylight.dsbenchmark.simpletx;
 
-import java.util.List;
-
+import java.util.Iterator;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
 import org.opendaylight.dsbenchmark.BaListBuilder;
 import org.opendaylight.dsbenchmark.DatastoreAbstractWriter;
+import org.opendaylight.dsbenchmark.ListBuildOptions;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.StartTestInput;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.TestExec;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.OuterList;
@@ -26,52 +26,66 @@ import org.slf4j.LoggerFactory;
 public class SimpletxBaWrite extends DatastoreAbstractWriter {
     private static final Logger LOG = LoggerFactory.getLogger(SimpletxBaWrite.class);
     private final DataBroker dataBroker;
-    private List<OuterList> list;
+    private Iterable<OuterList> list;
 
     public SimpletxBaWrite(DataBroker dataBroker, StartTestInput.Operation oper,
-            int outerListElem, int innerListElem, long writesPerTx) {
-        super(oper, outerListElem, innerListElem, writesPerTx);
+            int startId, int outerListElem, int innerListElem, long writesPerTx, ListBuildOptions listOptions) {
+        super(oper, startId, outerListElem, innerListElem, writesPerTx, listOptions);
         this.dataBroker = dataBroker;
         LOG.info("Created SimpletxBaWrite");
     }
 
      @Override
      public void createList() {
-         list = BaListBuilder.buildOuterList(this.outerListElem, this.innerListElem);
+         list = BaListBuilder.buildOuterList(this.outerListIds, this.innerListElem, listOptions);
      }
 
     @Override
     public void executeList() {
-        WriteTransaction tx = dataBroker.newWriteOnlyTransaction();
+        WriteTransaction tx = null;
+        long txStart = 0;
         long writeCnt = 0;
 
-        for (OuterList element : this.list) {
+        final Iterator<OuterList> elements = this.list.iterator();
+        while (elements.hasNext()) {
+            if (writeCnt == 0) {
+                txStart = pacer.acquire();
+                tx = dataBroker.newWriteOnlyTransaction();
+            }
+            final OuterList element = elements.next();
             InstanceIdentifier<OuterList> iid = InstanceIdentifier.create(TestExec.class)
                                                     .child(OuterList.class, element.key());
             if (oper == StartTestInput.Operation.PUT) {
-                tx.put(LogicalDatastoreType.CONFIGURATION, iid, element);
+                for (LogicalDatastoreType dataStore : dataStores) {
+                    tx.put(dataStore, iid, element);
+                }
             } else {
-                tx.merge(LogicalDatastoreType.CONFIGURATION, iid, element);
+                for (LogicalDatastoreType dataStore : dataStores) {
+                    tx.merge(dataStore, iid, element);
+                }
             }
 
             writeCnt++;
 
             if (writeCnt == writesPerTx) {
                 try {
+                    beforeSubmit();
                     tx.submit().checkedGet();
-                    txOk++;
+                    txLatency.record(System.nanoTime() - txStart);
+                    txOk.incrementAndGet();
                 } catch (TransactionCommitFailedException e) {
                     LOG.error("Transaction failed: {}", e.toString());
-                    txError++;
+                    txError.incrementAndGet();
                 }
-                tx = dataBroker.newWriteOnlyTransaction();
                 writeCnt = 0;
             }
         }
 
         if (writeCnt != 0) {
             try {
+                beforeSubmit();
                 tx.submit().checkedGet();
+                txLatency.record(System.nanoTime() - txStart);
             } catch (TransactionCommitFailedException e) {
                 LOG.error("Transaction failed: {}", e.toString());
             }
@@ -13,6 +13,7 @@ import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFaile
 import org.opendaylight.controller.md.sal.dom.api.DOMDataBroker;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataWriteTransaction;
 import org.opendaylight.dsbenchmark.DatastoreAbstractWriter;
+import org.opendaylight.dsbenchmark.ListBuildOptions;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.StartTestInput;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.TestExec;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.OuterList;
@@ -25,9 +26,9 @@ public class SimpletxDomDelete extends DatastoreAbstractWriter {
     private static final Logger LOG = (Logger) LoggerFactory.getLogger(SimpletxDomDelete.class);
     private final DOMDataBroker domDataBroker;
 
-    public SimpletxDomDelete(DOMDataBroker domDataBroker, int outerListElem,
-            int innerListElem, long writesPerTx) {
-        super(StartTestInput.Operation.DELETE, outerListElem, innerListElem, writesPerTx);
+    public SimpletxDomDelete(DOMDataBroker domDataBroker, int startId, int outerListElem,
+            int innerListElem, long writesPerTx, ListBuildOptions listOptions) {
+        super(StartTestInput.Operation.DELETE, startId, outerListElem, innerListElem, writesPerTx, listOptions);
         this.domDataBroker = domDataBroker;
         LOG.info("Created simpleTxDomDelete");
    }
@@ -39,9 +40,12 @@ public class SimpletxDomDelete extends DatastoreAbstractWriter {
         // with <outerListElem> PUTs on the transaction
         SimpletxDomWrite dd = new SimpletxDomWrite(domDataBroker,
                                                    StartTestInput.Operation.PUT,
+                                                   startId,
                                                    outerListElem,
                                                    innerListElem,
-                                                   outerListElem);
+                                                   outerListElem,
+                                                   listOptions);
+        dd.setDataStores(dataStores);
         dd.createList();
         dd.executeList();
     }
@@ -51,32 +55,41 @@ public class SimpletxDomDelete extends DatastoreAbstractWriter {
         long writeCnt = 0;
 
         org.opendaylight.yangtools.yang.common.QName OL_ID = QName.create(OuterList.QNAME, "id");
-        DOMDataWriteTransaction tx = domDataBroker.newWriteOnlyTransaction();
+        DOMDataWriteTransaction tx = null;
+        long txStart = 0;
+
+        for (int l : outerListIds) {
+            if (writeCnt == 0) {
+                txStart = pacer.acquire();
+                tx = domDataBroker.newWriteOnlyTransaction();
+            }
 
-        for (int l = 0; l < outerListElem; l++) {
             YangInstanceIdentifier yid = YangInstanceIdentifier.builder()
                                          .node(TestExec.QNAME)
                                          .node(OuterList.QNAME)
                                          .nodeWithKey(OuterList.QNAME, OL_ID, l)
                                          .build();
 
-            tx.delete(LogicalDatastoreType.CONFIGURATION, yid);
+            for (LogicalDatastoreType dataStore : dataStores) {
+                tx.delete(dataStore, yid);
+            }
             writeCnt++;
             if (writeCnt == writesPerTx) {
                 try {
                     tx.submit().checkedGet();
-                    txOk++;
+                    txLatency.record(System.nanoTime() - txStart);
+                    txOk.incrementAndGet();
                 } catch (TransactionCommitFailedException e) {
                     LOG.error("Transaction failed: {}", e.toString());
-                    txError++;
+                    txError.incrementAndGet();
                 }
-                tx = domDataBroker.newWriteOnlyTransaction();
                 writeCnt = 0;
             }
         }
         if (writeCnt != 0) {
             try {
                 tx.submit().checkedGet();
+                txLatency.record(System.nanoTime() - txStart);
             } catch (TransactionCommitFailedException e) {
                 LOG.error("Transaction failed: {}", e.toString());
             }
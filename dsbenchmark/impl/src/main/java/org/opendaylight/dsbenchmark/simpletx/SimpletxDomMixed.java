@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2015 Cisco Systems and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.dsbenchmark.simpletx;
+
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
+import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
+import org.opendaylight.controller.md.sal.dom.api.DOMDataBroker;
+import org.opendaylight.controller.md.sal.dom.api.DOMDataReadOnlyTransaction;
+import org.opendaylight.controller.md.sal.dom.api.DOMDataWriteTransaction;
+import org.opendaylight.dsbenchmark.DatastoreAbstractMixed;
+import org.opendaylight.dsbenchmark.DomListBuilder;
+import org.opendaylight.dsbenchmark.ListBuildOptions;
+import org.opendaylight.dsbenchmark.OperationMix;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.StartTestInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.TestExec;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.OuterList;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class SimpletxDomMixed extends DatastoreAbstractMixed<MapEntryNode> {
+    private static final Logger LOG = LoggerFactory.getLogger(SimpletxDomMixed.class);
+    private static final QName OL_ID = QName.create(OuterList.QNAME, "id");
+    private static final YangInstanceIdentifier OUTER_LIST_YID =
+            YangInstanceIdentifier.builder().node(TestExec.QNAME).node(OuterList.QNAME).build();
+
+    private final DOMDataBroker domDataBroker;
+    private DOMDataWriteTransaction tx;
+
+    public SimpletxDomMixed(DOMDataBroker domDataBroker, int startId, int outerListElem, int innerListElem,
+                            long writesPerTx, ListBuildOptions listOptions, OperationMix mix) {
+        super(startId, outerListElem, innerListElem, writesPerTx, listOptions, mix);
+        this.domDataBroker = domDataBroker;
+        LOG.info("Created SimpletxDomMixed");
+    }
+
+    @Override
+    protected void prepopulate() {
+        LOG.info("SimpletxDomMixed: creating data in the data store");
+        // Dump the whole list into the data store in a single transaction
+        // with <outerListElem> PUTs on the transaction
+        SimpletxDomWrite dd = new SimpletxDomWrite(domDataBroker,
+                StartTestInput.Operation.PUT,
+                startId,
+                outerListElem,
+                innerListElem,
+                outerListElem,
+                listOptions);
+        dd.setDataStores(dataStores);
+        dd.createList();
+        dd.executeList();
+    }
+
+    @Override
+    protected Iterable<MapEntryNode> buildList(int[] ids) {
+        return DomListBuilder.buildOuterList(ids, innerListElem, listOptions);
+    }
+
+    @Override
+    protected boolean read(int id) {
+        final DOMDataReadOnlyTransaction readTx = domDataBroker.newReadOnlyTransaction();
+        try {
+            readTx.read(dataStores[0], outerListYid(id)).checkedGet();
+            return true;
+        } catch (ReadFailedException e) {
+            LOG.error("Read failed: {}", e.toString());
+            return false;
+        } finally {
+            readTx.close();
+        }
+    }
+
+    @Override
+    protected void write(StartTestInput.Operation op, int id, MapEntryNode element) {
+        if (tx == null) {
+            tx = domDataBroker.newWriteOnlyTransaction();
+        }
+        if (op == StartTestInput.Operation.PUT) {
+            for (LogicalDatastoreType dataStore : dataStores) {
+                tx.put(dataStore, outerListYid(id), element);
+            }
+        } else if (op == StartTestInput.Operation.MERGE) {
+            for (LogicalDatastoreType dataStore : dataStores) {
+                tx.merge(dataStore, outerListYid(id), element);
+            }
+        } else {
+            for (LogicalDatastoreType dataStore : dataStores) {
+                tx.delete(dataStore, outerListYid(id));
+            }
+        }
+    }
+
+    @Override
+    protected boolean submit() {
+        try {
+            tx.submit().checkedGet();
+            return true;
+        } catch (TransactionCommitFailedException e) {
+            LOG.error("Transaction failed: {}", e.toString());
+            return false;
+        } finally {
+            tx = null;
+        }
+    }
+
+    private static YangInstanceIdentifier outerListYid(int id) {
+        return OUTER_LIST_YID.node(new NodeIdentifierWithPredicates(OuterList.QNAME, OL_ID, id));
+    }
+}
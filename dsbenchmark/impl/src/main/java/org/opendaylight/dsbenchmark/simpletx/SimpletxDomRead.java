@@ -12,15 +12,17 @@ package org.opendaylight.dsbenchmark.simpletx;
 import com.google.common.base.Optional;
 import com.google.common.util.concurrent.CheckedFuture;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataReadOnlyTransaction;
-import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataBroker;
 import org.opendaylight.dsbenchmark.DatastoreAbstractWriter;
+import org.opendaylight.dsbenchmark.ListBuildOptions;
+import org.opendaylight.dsbenchmark.PipelinedReads;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.StartTestInput;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.TestExec;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.OuterList;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,10 +31,12 @@ import org.slf4j.LoggerFactory;
 public class SimpletxDomRead extends DatastoreAbstractWriter {
     private static final Logger LOG = (Logger) LoggerFactory.getLogger(SimpletxDomRead.class);
     private final DOMDataBroker domDataBroker;
+    private final int readWindow;
 
-    public SimpletxDomRead(DOMDataBroker domDataBroker, int outerListElem,
-                           int innerListElem, long writesPerTx) {
-        super(StartTestInput.Operation.DELETE, outerListElem, innerListElem, writesPerTx);
+    public SimpletxDomRead(DOMDataBroker domDataBroker, int startId, int outerListElem,
+                           int innerListElem, long writesPerTx, ListBuildOptions listOptions, int readWindow) {
+        super(StartTestInput.Operation.DELETE, startId, outerListElem, innerListElem, writesPerTx, listOptions);
+        this.readWindow = readWindow;
         this.domDataBroker = domDataBroker;
         LOG.info("Created simpleTxDomRead");
 
@@ -45,34 +49,40 @@ public class SimpletxDomRead extends DatastoreAbstractWriter {
         // with <outerListElem> PUTs on the transaction
         SimpletxDomWrite dd = new SimpletxDomWrite(domDataBroker,
                 StartTestInput.Operation.PUT,
+                startId,
                 outerListElem,
                 innerListElem,
-                outerListElem);
+                outerListElem,
+                listOptions);
+        dd.setDataStores(dataStores);
         dd.createList();
         dd.executeList();
     }
 
     @Override
     public void executeList() {
+        if (readWindow > 1) {
+            executePipelined();
+            return;
+        }
         org.opendaylight.yangtools.yang.common.QName OL_ID = QName.create(OuterList.QNAME, "id");
         DOMDataReadOnlyTransaction tx = domDataBroker.newReadOnlyTransaction();
 
-        for (long l = 0; l < outerListElem; l++) {
-            NormalizedNode<?,?> ret = null;
-
+        for (int l : outerListIds) {
             YangInstanceIdentifier yid = YangInstanceIdentifier.builder()
                     .node(TestExec.QNAME)
                     .node(OuterList.QNAME)
                     .nodeWithKey(OuterList.QNAME, OL_ID, l)
                     .build();
             Optional<NormalizedNode<?,?>> optionalDataObject;
-            CheckedFuture<Optional<NormalizedNode<?,?>>, ReadFailedException> submitFuture = tx.read(LogicalDatastoreType.CONFIGURATION, yid);
+            final long readTime = pacer.acquire();
+            CheckedFuture<Optional<NormalizedNode<?,?>>, ReadFailedException> submitFuture = tx.read(dataStores[0], yid);
             try {
                 optionalDataObject = submitFuture.checkedGet();
-                if (optionalDataObject != null && optionalDataObject.isPresent()) {
-                    ret = optionalDataObject.get();
-                    LOG.info("/n" + String.valueOf(ret));
-                    txOk++;
+                txLatency.record(System.nanoTime() - readTime);
+                if (optionalDataObject != null && optionalDataObject.isPresent()
+                        && verifyOuterListNode(optionalDataObject.get(), l)) {
+                    txOk.incrementAndGet();
                 }
                 /*if (optionalDataObject != null && optionalDataObject.isPresent()) {
                     ret = optionalDataObject.get();
@@ -90,22 +100,38 @@ public class SimpletxDomRead extends DatastoreAbstractWriter {
                     boolean foundAll = true;
                     for (int i = 0; i < ret.getInnerList().size(); i++) {
                         String itemStr = objectsArray[i];
-                        if (!itemStr.contentEquals("Item-" + String.valueOf(l) + "-" + String.valueOf(i))) {
+                        if (!itemStr.contentEquals(listOptions.itemValue(l, i))) {
                             foundAll = false;
                             LOG.error("innerList: name: {}, value: {}", i, itemStr);
                             break;
                         }
                     }
-                    txOk++;
+                    txOk.incrementAndGet();
                 }*/ else {
-                    txError++;
-                    LOG.info("In the else part");
+                    txError.incrementAndGet();
                 }
             } catch (ReadFailedException e) {
                 LOG.warn("failed to ....", e);
-                txError++;
+                txError.incrementAndGet();
             }
         }
     }
 
+
+    private void executePipelined() {
+        final org.opendaylight.yangtools.yang.common.QName OL_ID = QName.create(OuterList.QNAME, "id");
+        final DOMDataReadOnlyTransaction tx = domDataBroker.newReadOnlyTransaction();
+        final PipelinedReads reads = new PipelinedReads(readWindow, txLatency, pacer);
+
+        final YangInstanceIdentifier pid = YangInstanceIdentifier.builder().node(TestExec.QNAME).node(OuterList.QNAME).build();
+        for (int l : outerListIds) {
+            final YangInstanceIdentifier yid = pid.node(new NodeIdentifierWithPredicates(OuterList.QNAME, OL_ID, l));
+            reads.read(() -> tx.read(dataStores[0], yid), node -> verifyOuterListNode(node, l));
+        }
+        reads.awaitCompletion();
+        tx.close();
+
+        txOk.addAndGet(reads.getReadOk());
+        txError.addAndGet(reads.getReadError());
+    }
 }
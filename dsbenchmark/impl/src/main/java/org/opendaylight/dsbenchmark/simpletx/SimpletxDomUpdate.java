@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2015 Cisco Systems and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.dsbenchmark.simpletx;
+
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
+import org.opendaylight.controller.md.sal.dom.api.DOMDataBroker;
+import org.opendaylight.controller.md.sal.dom.api.DOMDataWriteTransaction;
+import org.opendaylight.dsbenchmark.DatastoreAbstractUpdate;
+import org.opendaylight.dsbenchmark.ListBuildOptions;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.StartTestInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.TestExec;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.OuterList;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.outer.list.InnerList;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class SimpletxDomUpdate extends DatastoreAbstractUpdate {
+    private static final Logger LOG = LoggerFactory.getLogger(SimpletxDomUpdate.class);
+    private static final QName OL_ID = QName.create(OuterList.QNAME, "id");
+    private static final QName IL_NAME = QName.create(InnerList.QNAME, "name");
+    private static final QName IL_VALUE = QName.create(InnerList.QNAME, "value");
+    private static final YangInstanceIdentifier OUTER_LIST_YID =
+            YangInstanceIdentifier.builder().node(TestExec.QNAME).node(OuterList.QNAME).build();
+
+    private final DOMDataBroker domDataBroker;
+    private DOMDataWriteTransaction tx;
+
+    public SimpletxDomUpdate(DOMDataBroker domDataBroker, int startId, int outerListElem, int innerListElem,
+                             long writesPerTx, ListBuildOptions listOptions, int updatePercent) {
+        super(startId, outerListElem, innerListElem, writesPerTx, listOptions, updatePercent);
+        this.domDataBroker = domDataBroker;
+        LOG.info("Created SimpletxDomUpdate");
+    }
+
+    @Override
+    protected void prepopulate() {
+        LOG.info("SimpletxDomUpdate: creating data in the data store");
+        // Dump the whole list into the data store in a single transaction
+        // with <outerListElem> PUTs on the transaction
+        SimpletxDomWrite dd = new SimpletxDomWrite(domDataBroker,
+                StartTestInput.Operation.PUT,
+                startId,
+                outerListElem,
+                innerListElem,
+                outerListElem,
+                listOptions);
+        dd.setDataStores(dataStores);
+        dd.createList();
+        dd.executeList();
+    }
+
+    @Override
+    protected void update(int outerId, int innerId, String value) {
+        if (tx == null) {
+            tx = domDataBroker.newWriteOnlyTransaction();
+        }
+        final NodeIdentifierWithPredicates innerListId =
+                new NodeIdentifierWithPredicates(InnerList.QNAME, IL_NAME, innerId);
+        final MapEntryNode innerList = ImmutableNodes.mapEntryBuilder()
+                .withNodeIdentifier(innerListId)
+                .withChild(ImmutableNodes.leafNode(IL_NAME, innerId))
+                .withChild(ImmutableNodes.leafNode(IL_VALUE, value))
+                .build();
+        final YangInstanceIdentifier yid = OUTER_LIST_YID
+                .node(new NodeIdentifierWithPredicates(OuterList.QNAME, OL_ID, outerId))
+                .node(InnerList.QNAME)
+                .node(innerListId);
+        for (LogicalDatastoreType dataStore : dataStores) {
+            tx.merge(dataStore, yid, innerList);
+        }
+    }
+
+    @Override
+    protected boolean submit() {
+        try {
+            tx.submit().checkedGet();
+            return true;
+        } catch (TransactionCommitFailedException e) {
+            LOG.error("Transaction failed: {}", e.toString());
+            return false;
+        } finally {
+            tx = null;
+        }
+    }
+}
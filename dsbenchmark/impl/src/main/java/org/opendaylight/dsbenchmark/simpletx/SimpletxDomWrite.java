@@ -8,13 +8,13 @@
 
 package org.opendaylight.dsbenchmark.simpletx;
 
-import java.util.List;
-
+import java.util.Iterator;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataBroker;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataWriteTransaction;
 import org.opendaylight.dsbenchmark.DatastoreAbstractWriter;
+import org.opendaylight.dsbenchmark.ListBuildOptions;
 import org.opendaylight.dsbenchmark.DomListBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.StartTestInput;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.TestExec;
@@ -28,53 +28,67 @@ import org.slf4j.LoggerFactory;
 public class SimpletxDomWrite extends DatastoreAbstractWriter {
     private static final Logger LOG = LoggerFactory.getLogger(SimpletxDomWrite.class);
     private final DOMDataBroker domDataBroker;
-    private List<MapEntryNode> list;
+    private Iterable<MapEntryNode> list;
 
     public SimpletxDomWrite(DOMDataBroker domDataBroker, StartTestInput.Operation oper,
-                                    int outerListElem, int innerListElem, long putsPerTx ) {
-        super(oper, outerListElem, innerListElem, putsPerTx);
+                                    int startId, int outerListElem, int innerListElem, long putsPerTx ) {
+        super(oper, startId, outerListElem, innerListElem, putsPerTx, listOptions);
         this.domDataBroker = domDataBroker;
         LOG.info("Created SimpletxDomWrite");
     }
 
     @Override
     public void createList() {
-        list = DomListBuilder.buildOuterList(this.outerListElem, this.innerListElem);
+        list = DomListBuilder.buildOuterList(this.outerListIds, this.innerListElem, listOptions);
     }
 
     @Override
     public void executeList() {
-        DOMDataWriteTransaction tx = domDataBroker.newWriteOnlyTransaction();
+        DOMDataWriteTransaction tx = null;
+        long txStart = 0;
         long writeCnt = 0;
 
         YangInstanceIdentifier pid = YangInstanceIdentifier.builder().node(TestExec.QNAME).node(OuterList.QNAME).build();
-        for (MapEntryNode element : this.list) {
+        final Iterator<MapEntryNode> elements = this.list.iterator();
+        while (elements.hasNext()) {
+            if (writeCnt == 0) {
+                txStart = pacer.acquire();
+                tx = domDataBroker.newWriteOnlyTransaction();
+            }
+            final MapEntryNode element = elements.next();
             YangInstanceIdentifier yid = pid.node(new NodeIdentifierWithPredicates(OuterList.QNAME, element.getIdentifier().getKeyValues()));
 
             if (oper == StartTestInput.Operation.PUT) {
-                tx.put(LogicalDatastoreType.CONFIGURATION, yid, element);
+                for (LogicalDatastoreType dataStore : dataStores) {
+                    tx.put(dataStore, yid, element);
+                }
             } else {
-                tx.merge(LogicalDatastoreType.CONFIGURATION, yid, element);
+                for (LogicalDatastoreType dataStore : dataStores) {
+                    tx.merge(dataStore, yid, element);
+                }
             }
 
             writeCnt++;
 
             if (writeCnt == writesPerTx) {
                 try {
+                    beforeSubmit();
                     tx.submit().checkedGet();
-                    txOk++;
+                    txLatency.record(System.nanoTime() - txStart);
+                    txOk.incrementAndGet();
                 } catch (TransactionCommitFailedException e) {
                     LOG.error("Transaction failed", e);
-                    txError++;
+                    txError.incrementAndGet();
                 }
-                tx = domDataBroker.newWriteOnlyTransaction();
                 writeCnt = 0;
             }
         }
 
         if (writeCnt != 0) {
             try {
+                beforeSubmit();
                 tx.submit().checkedGet();
+                txLatency.record(System.nanoTime() - txStart);
             } catch (TransactionCommitFailedException e) {
                 LOG.error("Transaction failed", e);
             }
@@ -17,6 +17,8 @@ import org.opendaylight.controller.md.sal.common.api.data.TransactionChain;
 import org.opendaylight.controller.md.sal.common.api.data.TransactionChainListener;
 import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
 import org.opendaylight.dsbenchmark.DatastoreAbstractWriter;
+import org.opendaylight.dsbenchmark.ListBuildOptions;
+import org.opendaylight.dsbenchmark.OutstandingTxLimiter;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.StartTestInput;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.TestExec;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.OuterList;
@@ -31,9 +33,12 @@ import com.google.common.util.concurrent.Futures;
 public class TxchainBaDelete extends DatastoreAbstractWriter implements TransactionChainListener{
     private static final Logger LOG = (Logger) LoggerFactory.getLogger(TxchainBaDelete.class);
     private DataBroker bindingDataBroker;
+    private final OutstandingTxLimiter outstandingTx;
 
-    public TxchainBaDelete(DataBroker bindingDataBroker, int outerListElem, int innerListElem, long writesPerTx) {
-        super(StartTestInput.Operation.DELETE, outerListElem, innerListElem, writesPerTx);
+    public TxchainBaDelete(DataBroker bindingDataBroker, int startId, int outerListElem,
+                           int innerListElem, long writesPerTx, ListBuildOptions listOptions, int maxOutstandingTx) {
+        super(StartTestInput.Operation.DELETE, startId, outerListElem, innerListElem, writesPerTx, listOptions);
+        this.outstandingTx = new OutstandingTxLimiter(maxOutstandingTx);
         this.bindingDataBroker = bindingDataBroker;
         LOG.info("Created TxchainBaDelete");
     }
@@ -46,9 +51,13 @@ public class TxchainBaDelete extends DatastoreAbstractWriter implements Transact
         // with <outerListElem> PUTs on the transaction
         TxchainBaWrite dd = new TxchainBaWrite(bindingDataBroker,
                                                StartTestInput.Operation.PUT,
+                                               startId,
                                                outerListElem,
                                                innerListElem,
-                                               outerListElem);
+                                               outerListElem,
+                                               listOptions,
+                                               0);
+        dd.setDataStores(dataStores);
         dd.createList();
         dd.executeList();
     }
@@ -59,50 +68,74 @@ public class TxchainBaDelete extends DatastoreAbstractWriter implements Transact
         int writeCnt = 0;
 
         BindingTransactionChain chain = bindingDataBroker.createTransactionChain(this);
-        WriteTransaction tx = chain.newWriteOnlyTransaction();
+        WriteTransaction tx = null;
+        long txStart = 0;
+
+        for (int l : outerListIds) {
+            if (writeCnt == 0) {
+                txStart = pacer.acquire();
+                outstandingTx.acquire();
+                tx = chain.newWriteOnlyTransaction();
+            }
 
-        for (long l = 0; l < outerListElem; l++) {
             InstanceIdentifier<OuterList> iid = InstanceIdentifier.create(TestExec.class)
-                                                    .child(OuterList.class, new OuterListKey((int)l));
-            tx.delete(LogicalDatastoreType.CONFIGURATION, iid);
+                                                    .child(OuterList.class, new OuterListKey(l));
+            for (LogicalDatastoreType dataStore : dataStores) {
+                tx.delete(dataStore, iid);
+            }
 
             writeCnt++;
 
             if (writeCnt == writesPerTx) {
                 txSubmitted++;
+                final long startTime = txStart;
                 Futures.addCallback(tx.submit(), new FutureCallback<Void>() {
                     @Override
                     public void onSuccess(final Void result) {
-                        txOk++;
+                        txLatency.record(System.nanoTime() - startTime);
+                        txOk.incrementAndGet();
+                        outstandingTx.release();
                     }
                     @Override
                     public void onFailure(final Throwable t) {
                         LOG.error("Transaction failed, {}", t);
-                        txError++;
+                        txError.incrementAndGet();
+                        outstandingTx.release();
                     }
                 });
-                tx = chain.newWriteOnlyTransaction();
                 writeCnt = 0;
             }
         }
 
         // Submit the outstanding transaction even if it's empty and wait for it to finish
         // We need to empty the chain before closing it
+        if (writeCnt == 0) {
+            txStart = pacer.acquire();
+            outstandingTx.acquire();
+            tx = chain.newWriteOnlyTransaction();
+        }
         try {
             if (writeCnt > 0) {
                 txSubmitted++;
             }
             tx.submit().checkedGet();
+            txLatency.record(System.nanoTime() - txStart);
         } catch (TransactionCommitFailedException e) {
             LOG.error("Transaction failed", e);
         }
+        outstandingTx.release();
         try {
             chain.close();
         }
         catch (IllegalStateException e){
             LOG.error("Transaction close failed,", e);
         }
-        LOG.info("Transactions: submitted {}, completed {}", txSubmitted, (txOk + txError));
+        LOG.info("Transactions: submitted {}, completed {}", txSubmitted, (txOk.get() + txError.get()));
+    }
+
+    @Override
+    public int getOutstandingTxHighWater() {
+        return outstandingTx.getHighWaterMark();
     }
 
     @Override
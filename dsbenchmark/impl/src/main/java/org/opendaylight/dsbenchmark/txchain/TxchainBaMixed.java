@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2015 Cisco Systems and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.dsbenchmark.txchain;
+
+import org.opendaylight.controller.md.sal.binding.api.BindingTransactionChain;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.ReadOnlyTransaction;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.AsyncTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
+import org.opendaylight.controller.md.sal.common.api.data.TransactionChain;
+import org.opendaylight.controller.md.sal.common.api.data.TransactionChainListener;
+import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
+import org.opendaylight.dsbenchmark.BaListBuilder;
+import org.opendaylight.dsbenchmark.DatastoreAbstractMixed;
+import org.opendaylight.dsbenchmark.ListBuildOptions;
+import org.opendaylight.dsbenchmark.OperationMix;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.StartTestInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.TestExec;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.OuterList;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.OuterListKey;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class TxchainBaMixed extends DatastoreAbstractMixed<OuterList> implements TransactionChainListener {
+    private static final Logger LOG = LoggerFactory.getLogger(TxchainBaMixed.class);
+    private final DataBroker bindingDataBroker;
+    private BindingTransactionChain chain;
+    private WriteTransaction tx;
+
+    public TxchainBaMixed(DataBroker bindingDataBroker, int startId, int outerListElem, int innerListElem,
+                           long writesPerTx, ListBuildOptions listOptions, OperationMix mix) {
+        super(startId, outerListElem, innerListElem, writesPerTx, listOptions, mix);
+        this.bindingDataBroker = bindingDataBroker;
+        LOG.info("Created TxchainBaMixed");
+    }
+
+    @Override
+    protected void prepopulate() {
+        LOG.info("TxchainBaMixed: creating data in the data store");
+        // Dump the whole list into the data store in a single transaction
+        // with <outerListElem> PUTs on the transaction
+        TxchainBaWrite dd = new TxchainBaWrite(bindingDataBroker,
+                StartTestInput.Operation.PUT,
+                startId,
+                outerListElem,
+                innerListElem,
+                outerListElem,
+                listOptions,
+                0);
+        dd.setDataStores(dataStores);
+        dd.createList();
+        dd.executeList();
+    }
+
+    @Override
+    protected Iterable<OuterList> buildList(int[] ids) {
+        return BaListBuilder.buildOuterList(ids, innerListElem, listOptions);
+    }
+
+    @Override
+    protected void beginExecution() {
+        chain = bindingDataBroker.createTransactionChain(this);
+    }
+
+    @Override
+    protected void endExecution() {
+        try {
+            chain.close();
+        } catch (IllegalStateException e) {
+            LOG.error("Transaction close failed,", e);
+        }
+    }
+
+    @Override
+    protected boolean read(int id) {
+        final ReadOnlyTransaction readTx = chain.newReadOnlyTransaction();
+        try {
+            readTx.read(dataStores[0], outerListIid(id)).checkedGet();
+            return true;
+        } catch (ReadFailedException e) {
+            LOG.error("Read failed: {}", e.toString());
+            return false;
+        } finally {
+            readTx.close();
+        }
+    }
+
+    @Override
+    protected void write(StartTestInput.Operation op, int id, OuterList element) {
+        if (tx == null) {
+            tx = chain.newWriteOnlyTransaction();
+        }
+        if (op == StartTestInput.Operation.PUT) {
+            for (LogicalDatastoreType dataStore : dataStores) {
+                tx.put(dataStore, outerListIid(id), element);
+            }
+        } else if (op == StartTestInput.Operation.MERGE) {
+            for (LogicalDatastoreType dataStore : dataStores) {
+                tx.merge(dataStore, outerListIid(id), element);
+            }
+        } else {
+            for (LogicalDatastoreType dataStore : dataStores) {
+                tx.delete(dataStore, outerListIid(id));
+            }
+        }
+    }
+
+    @Override
+    protected boolean submit() {
+        try {
+            tx.submit().checkedGet();
+            return true;
+        } catch (TransactionCommitFailedException e) {
+            LOG.error("Transaction failed: {}", e.toString());
+            return false;
+        } finally {
+            tx = null;
+        }
+    }
+
+    @Override
+    public void onTransactionChainFailed(TransactionChain<?, ?> chain,
+            AsyncTransaction<?, ?> transaction, Throwable cause) {
+        LOG.error("Broken chain {} in TxchainBaMixed, transaction {}, cause {}",
+                chain, transaction.getIdentifier(), cause);
+    }
+
+    @Override
+    public void onTransactionChainSuccessful(TransactionChain<?, ?> chain) {
+        LOG.info("TxchainBaMixed closed successfully, chain {}", chain);
+    }
+
+    private static InstanceIdentifier<OuterList> outerListIid(int id) {
+        return InstanceIdentifier.create(TestExec.class).child(OuterList.class, new OuterListKey(id));
+    }
+}
@@ -12,14 +12,16 @@ import com.google.common.base.Optional;
 import com.google.common.util.concurrent.CheckedFuture;
 import org.opendaylight.controller.md.sal.binding.api.BindingTransactionChain;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.ReadOnlyTransaction;
 import org.opendaylight.controller.md.sal.binding.api.ReadTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.*;
 import org.opendaylight.dsbenchmark.DatastoreAbstractWriter;
+import org.opendaylight.dsbenchmark.ListBuildOptions;
+import org.opendaylight.dsbenchmark.PipelinedReads;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.StartTestInput;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.TestExec;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.OuterList;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.OuterListKey;
-import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.outer.list.InnerList;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,9 +29,12 @@ import org.slf4j.LoggerFactory;
 public class TxchainBaRead extends DatastoreAbstractWriter implements TransactionChainListener{
     private static final Logger LOG = (Logger) LoggerFactory.getLogger(TxchainBaRead.class);
     private DataBroker bindingDataBroker;
+    private final int readWindow;
 
-    public TxchainBaRead(DataBroker bindingDataBroker, int outerListElem, int innerListElem, long writesPerTx) {
-        super(StartTestInput.Operation.DELETE, outerListElem, innerListElem, writesPerTx);
+    public TxchainBaRead(DataBroker bindingDataBroker, int startId, int outerListElem,
+                         int innerListElem, long writesPerTx, ListBuildOptions listOptions, int readWindow) {
+        super(StartTestInput.Operation.DELETE, startId, outerListElem, innerListElem, writesPerTx, listOptions);
+        this.readWindow = readWindow;
         this.bindingDataBroker = bindingDataBroker;
         LOG.info("Created TxchainBaRead");
     }
@@ -42,67 +47,75 @@ public class TxchainBaRead extends DatastoreAbstractWriter implements Transactio
         // with <outerListElem> PUTs on the transaction
         TxchainBaWrite dd = new TxchainBaWrite(bindingDataBroker,
                 StartTestInput.Operation.PUT,
+                startId,
                 outerListElem,
                 innerListElem,
-                outerListElem);
+                outerListElem,
+                listOptions,
+                0);
+        dd.setDataStores(dataStores);
         dd.createList();
         dd.executeList();
     }
 
     @Override
     public void executeList() {
+        if (readWindow > 1) {
+            executePipelined();
+            return;
+        }
 
         BindingTransactionChain chain = bindingDataBroker.createTransactionChain(this);
         ReadTransaction tx = bindingDataBroker.newReadOnlyTransaction();
 
-        for (long l = 0; l < outerListElem; l++) {
+        for (int l : outerListIds) {
 
-            OuterList outerList;
             InstanceIdentifier<OuterList> iid = InstanceIdentifier.create(TestExec.class)
-                    .child(OuterList.class, new OuterListKey((int) l));
+                    .child(OuterList.class, new OuterListKey(l));
             Optional<OuterList> optionalDataObject;
-            CheckedFuture<Optional<OuterList>, ReadFailedException> submitFuture = tx.read(LogicalDatastoreType.CONFIGURATION, iid);
+            final long readTime = pacer.acquire();
+            CheckedFuture<Optional<OuterList>, ReadFailedException> submitFuture = tx.read(dataStores[0], iid);
 
             try {
                 optionalDataObject = submitFuture.checkedGet();
+                txLatency.record(System.nanoTime() - readTime);
                 /*if (optionalDataObject != null && optionalDataObject.isPresent()) {
                     ret = optionalDataObject.get();
-                    txOk++;
+                    txOk.incrementAndGet();
                 }*/
-                if (optionalDataObject != null && optionalDataObject.isPresent()) {
-                    outerList = optionalDataObject.get();
-
-                    String[] objectsArray = new String[outerList.getInnerList().size()];
-
-                    //LOG.info("innerList element: " + objectsArray );
-                    for (InnerList innerList : outerList.getInnerList()) {
-                        if (objectsArray[innerList.getName()] != null) {
-                            LOG.error("innerList: DUPLICATE name: {}, value: {}", innerList.getName(), innerList.getValue());
-                        }
-                        objectsArray[innerList.getName()] = innerList.getValue();
-                        // LOG.info("innerList: name: {}, value: {}", innerList.getName(), innerList.getValue());
-                    }
-                    boolean foundAll = true;
-                    for (int i = 0; i < outerList.getInnerList().size(); i++) {
-                        String itemStr = objectsArray[i];
-                        if (!itemStr.contentEquals("Item-" + String.valueOf(l) + "-" + String.valueOf(i))) {
-                            foundAll = false;
-                            LOG.error("innerList: name: {}, value: {}", i, itemStr);
-                            break;
-                        }
-                    }
-                    txOk++;
+                if (optionalDataObject != null && optionalDataObject.isPresent()
+                        && verifyOuterList(optionalDataObject.get(), l)) {
+                    txOk.incrementAndGet();
                 }
                 else {
-                    txError++;
+                    txError.incrementAndGet();
                 }
             } catch (ReadFailedException e) {
                 LOG.warn("failed to ....", e);
-                txError++;
+                txError.incrementAndGet();
             }
         }
     }
 
+    private void executePipelined() {
+        final BindingTransactionChain chain = bindingDataBroker.createTransactionChain(this);
+        final ReadOnlyTransaction tx = chain.newReadOnlyTransaction();
+        final PipelinedReads reads = new PipelinedReads(readWindow, txLatency, pacer);
+
+        for (final int id : outerListIds) {
+            final InstanceIdentifier<OuterList> iid = InstanceIdentifier.create(TestExec.class)
+                    .child(OuterList.class, new OuterListKey(id));
+            reads.read(() -> tx.read(dataStores[0], iid),
+                outerList -> verifyOuterList(outerList, id));
+        }
+        reads.awaitCompletion();
+        tx.close();
+        chain.close();
+
+        txOk.addAndGet(reads.getReadOk());
+        txError.addAndGet(reads.getReadError());
+    }
+
     @Override
     public void onTransactionChainFailed(TransactionChain<?, ?> chain,
                                          AsyncTransaction<?, ?> transaction, Throwable cause) {
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2015 Cisco Systems and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.dsbenchmark.txchain;
+
+import org.opendaylight.controller.md.sal.binding.api.BindingTransactionChain;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.AsyncTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.common.api.data.TransactionChain;
+import org.opendaylight.controller.md.sal.common.api.data.TransactionChainListener;
+import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
+import org.opendaylight.dsbenchmark.DatastoreAbstractUpdate;
+import org.opendaylight.dsbenchmark.ListBuildOptions;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.StartTestInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.TestExec;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.OuterList;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.OuterListKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.outer.list.InnerList;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.outer.list.InnerListBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.outer.list.InnerListKey;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class TxchainBaUpdate extends DatastoreAbstractUpdate implements TransactionChainListener {
+    private static final Logger LOG = LoggerFactory.getLogger(TxchainBaUpdate.class);
+    private final DataBroker bindingDataBroker;
+    private BindingTransactionChain chain;
+    private WriteTransaction tx;
+
+    public TxchainBaUpdate(DataBroker bindingDataBroker, int startId, int outerListElem, int innerListElem,
+                           long writesPerTx, ListBuildOptions listOptions, int updatePercent) {
+        super(startId, outerListElem, innerListElem, writesPerTx, listOptions, updatePercent);
+        this.bindingDataBroker = bindingDataBroker;
+        LOG.info("Created TxchainBaUpdate");
+    }
+
+    @Override
+    protected void prepopulate() {
+        LOG.info("TxchainBaUpdate: creating data in the data store");
+        // Dump the whole list into the data store in a single transaction
+        // with <outerListElem> PUTs on the transaction
+        TxchainBaWrite dd = new TxchainBaWrite(bindingDataBroker,
+                StartTestInput.Operation.PUT,
+                startId,
+                outerListElem,
+                innerListElem,
+                outerListElem,
+                listOptions,
+                0);
+        dd.setDataStores(dataStores);
+        dd.createList();
+        dd.executeList();
+    }
+
+    @Override
+    protected void beginExecution() {
+        chain = bindingDataBroker.createTransactionChain(this);
+    }
+
+    @Override
+    protected void endExecution() {
+        try {
+            chain.close();
+        } catch (IllegalStateException e) {
+            LOG.error("Transaction close failed,", e);
+        }
+    }
+
+    @Override
+    protected void update(int outerId, int innerId, String value) {
+        if (tx == null) {
+            tx = chain.newWriteOnlyTransaction();
+        }
+        final InnerListKey key = new InnerListKey(innerId);
+        final InnerList innerList = new InnerListBuilder()
+                .withKey(key)
+                .setName(innerId)
+                .setValue(value)
+                .build();
+        for (LogicalDatastoreType dataStore : dataStores) {
+            tx.merge(dataStore, innerListIid(outerId, key), innerList);
+        }
+    }
+
+    @Override
+    protected boolean submit() {
+        try {
+            tx.submit().checkedGet();
+            return true;
+        } catch (TransactionCommitFailedException e) {
+            LOG.error("Transaction failed: {}", e.toString());
+            return false;
+        } finally {
+            tx = null;
+        }
+    }
+
+    @Override
+    public void onTransactionChainFailed(TransactionChain<?, ?> chain,
+            AsyncTransaction<?, ?> transaction, Throwable cause) {
+        LOG.error("Broken chain {} in TxchainBaUpdate, transaction {}, cause {}",
+                chain, transaction.getIdentifier(), cause);
+    }
+
+    @Override
+    public void onTransactionChainSuccessful(TransactionChain<?, ?> chain) {
+        LOG.info("TxchainBaUpdate closed successfully, chain {}", chain);
+    }
+
+    private static InstanceIdentifier<InnerList> innerListIid(int outerId, InnerListKey key) {
+        return InstanceIdentifier.create(TestExec.class).child(OuterList.class, new OuterListKey(outerId))
+                .child(InnerList.class, key);
+    }
+}
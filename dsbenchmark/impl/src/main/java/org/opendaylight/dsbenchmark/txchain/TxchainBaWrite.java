@@ -8,8 +8,7 @@
 
 package org.opendaylight.dsbenchmark.txchain;
 
-import java.util.List;
-
+import java.util.Iterator;
 import org.opendaylight.controller.md.sal.binding.api.BindingTransactionChain;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
@@ -20,6 +19,8 @@ import org.opendaylight.controller.md.sal.common.api.data.TransactionChainListen
 import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
 import org.opendaylight.dsbenchmark.BaListBuilder;
 import org.opendaylight.dsbenchmark.DatastoreAbstractWriter;
+import org.opendaylight.dsbenchmark.ListBuildOptions;
+import org.opendaylight.dsbenchmark.OutstandingTxLimiter;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.StartTestInput.Operation;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.StartTestInput;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.TestExec;
@@ -34,18 +35,21 @@ import com.google.common.util.concurrent.Futures;
 public class TxchainBaWrite extends DatastoreAbstractWriter implements TransactionChainListener {
     private static final Logger LOG = LoggerFactory.getLogger(TxchainBaWrite.class);
     private final DataBroker bindingDataBroker;
-    private List<OuterList> list;
+    private final OutstandingTxLimiter outstandingTx;
+    private Iterable<OuterList> list;
 
     public TxchainBaWrite(DataBroker bindingDataBroker, Operation oper,
-                          int outerListElem, int innerListElem, long writesPerTx) {
-        super(oper, outerListElem, innerListElem, writesPerTx);
+                          int startId, int outerListElem, int innerListElem, long writesPerTx,
+                          ListBuildOptions listOptions, int maxOutstandingTx) {
+        super(oper, startId, outerListElem, innerListElem, writesPerTx, listOptions);
+        this.outstandingTx = new OutstandingTxLimiter(maxOutstandingTx);
         this.bindingDataBroker = bindingDataBroker;
         LOG.info("Created TxchainBaWrite");
     }
 
     @Override
     public void createList() {
-        list = BaListBuilder.buildOuterList(this.outerListElem, this.innerListElem);
+        list = BaListBuilder.buildOuterList(this.outerListIds, this.innerListElem, listOptions);
     }
 
     @Override
@@ -54,33 +58,49 @@ public class TxchainBaWrite extends DatastoreAbstractWriter implements Transacti
         int writeCnt = 0;
 
         BindingTransactionChain chain = bindingDataBroker.createTransactionChain(this);
-        WriteTransaction tx = chain.newWriteOnlyTransaction();
-
-        for (OuterList element : this.list) {
+        WriteTransaction tx = null;
+        long txStart = 0;
+
+        final Iterator<OuterList> elements = this.list.iterator();
+        while (elements.hasNext()) {
+            if (writeCnt == 0) {
+                txStart = pacer.acquire();
+                outstandingTx.acquire();
+                tx = chain.newWriteOnlyTransaction();
+            }
+            final OuterList element = elements.next();
             InstanceIdentifier<OuterList> iid = InstanceIdentifier.create(TestExec.class)
                                                     .child(OuterList.class, element.key());
             if (oper == StartTestInput.Operation.PUT) {
-                tx.put(LogicalDatastoreType.CONFIGURATION, iid, element);
+                for (LogicalDatastoreType dataStore : dataStores) {
+                    tx.put(dataStore, iid, element);
+                }
             } else {
-                tx.merge(LogicalDatastoreType.CONFIGURATION, iid, element);
+                for (LogicalDatastoreType dataStore : dataStores) {
+                    tx.merge(dataStore, iid, element);
+                }
             }
 
             writeCnt++;
 
             if (writeCnt == writesPerTx) {
                 txSubmitted++;
+                final long startTime = txStart;
+                beforeSubmit();
                 Futures.addCallback(tx.submit(), new FutureCallback<Void>() {
                     @Override
                     public void onSuccess(final Void result) {
-                        txOk++;
+                        txLatency.record(System.nanoTime() - startTime);
+                        txOk.incrementAndGet();
+                        outstandingTx.release();
                     }
                     @Override
                     public void onFailure(final Throwable t) {
                         LOG.error("Transaction failed, {}", t);
-                        txError++;
+                        txError.incrementAndGet();
+                        outstandingTx.release();
                     }
                 });
-                tx = chain.newWriteOnlyTransaction();
                 writeCnt = 0;
             }
         }
@@ -88,21 +108,34 @@ public class TxchainBaWrite extends DatastoreAbstractWriter implements Transacti
         // *** Clean up and close the transaction chain ***
         // Submit the outstanding transaction even if it's empty and wait for it to finish
         // We need to empty the transaction chain before closing it
+        if (writeCnt == 0) {
+            txStart = pacer.acquire();
+            outstandingTx.acquire();
+            tx = chain.newWriteOnlyTransaction();
+        }
         try {
             txSubmitted++;
+            beforeSubmit();
             tx.submit().checkedGet();
-            txOk++;
+            txLatency.record(System.nanoTime() - txStart);
+            txOk.incrementAndGet();
         } catch (TransactionCommitFailedException e) {
             LOG.error("Transaction failed", e);
-            txError++;
+            txError.incrementAndGet();
         }
+        outstandingTx.release();
         try {
             chain.close();
         }
         catch (IllegalStateException e){
             LOG.error("Transaction close failed,", e);
         }
-        LOG.info("Transactions: submitted {}, completed {}", txSubmitted, (txOk + txError));
+        LOG.info("Transactions: submitted {}, completed {}", txSubmitted, (txOk.get() + txError.get()));
+    }
+
+    @Override
+    public int getOutstandingTxHighWater() {
+        return outstandingTx.getHighWaterMark();
     }
 
     @Override
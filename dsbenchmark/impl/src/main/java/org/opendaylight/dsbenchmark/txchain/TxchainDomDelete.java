@@ -17,6 +17,8 @@ import org.opendaylight.controller.md.sal.dom.api.DOMDataBroker;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataWriteTransaction;
 import org.opendaylight.controller.md.sal.dom.api.DOMTransactionChain;
 import org.opendaylight.dsbenchmark.DatastoreAbstractWriter;
+import org.opendaylight.dsbenchmark.ListBuildOptions;
+import org.opendaylight.dsbenchmark.OutstandingTxLimiter;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.StartTestInput;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.TestExec;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.OuterList;
@@ -32,9 +34,12 @@ import com.google.common.util.concurrent.Futures;
 public class TxchainDomDelete extends DatastoreAbstractWriter implements TransactionChainListener{
     private static final Logger LOG = LoggerFactory.getLogger(TxchainBaWrite.class);
     private final DOMDataBroker domDataBroker;
+    private final OutstandingTxLimiter outstandingTx;
 
-    public TxchainDomDelete(DOMDataBroker domDataBroker, int outerListElem, int innerListElem, long writesPerTx) {
-        super(StartTestInput.Operation.DELETE, outerListElem, innerListElem, writesPerTx);
+    public TxchainDomDelete(DOMDataBroker domDataBroker, int startId, int outerListElem,
+                            int innerListElem, long writesPerTx, ListBuildOptions listOptions, int maxOutstandingTx) {
+        super(StartTestInput.Operation.DELETE, startId, outerListElem, innerListElem, writesPerTx, listOptions);
+        this.outstandingTx = new OutstandingTxLimiter(maxOutstandingTx);
         this.domDataBroker = domDataBroker;
         LOG.info("Created TxchainDomDelete");
     }
@@ -47,9 +52,13 @@ public class TxchainDomDelete extends DatastoreAbstractWriter implements Transac
         // with <outerListElem> PUTs on the transaction
         TxchainDomWrite dd = new TxchainDomWrite(domDataBroker,
                                                  StartTestInput.Operation.PUT,
+                                                 startId,
                                                  outerListElem,
                                                  innerListElem,
-                                                 outerListElem);
+                                                 outerListElem,
+                                                 listOptions,
+                                                 0);
+        dd.setDataStores(dataStores);
         dd.createList();
         dd.executeList();
     }
@@ -61,29 +70,41 @@ public class TxchainDomDelete extends DatastoreAbstractWriter implements Transac
 
         org.opendaylight.yangtools.yang.common.QName OL_ID = QName.create(OuterList.QNAME, "id");
         DOMTransactionChain chain = domDataBroker.createTransactionChain(this);
-        DOMDataWriteTransaction tx = chain.newWriteOnlyTransaction();
+        DOMDataWriteTransaction tx = null;
+        long txStart = 0;
 
         YangInstanceIdentifier pid = YangInstanceIdentifier.builder().node(TestExec.QNAME).node(OuterList.QNAME).build();
-        for (int l = 0; l < outerListElem; l++) {
+        for (int l : outerListIds) {
+            if (writeCnt == 0) {
+                txStart = pacer.acquire();
+                outstandingTx.acquire();
+                tx = chain.newWriteOnlyTransaction();
+            }
+
             YangInstanceIdentifier yid = pid.node(new NodeIdentifierWithPredicates(OuterList.QNAME, OL_ID, l));
-            tx.delete(LogicalDatastoreType.CONFIGURATION, yid);
+            for (LogicalDatastoreType dataStore : dataStores) {
+                tx.delete(dataStore, yid);
+            }
 
             writeCnt++;
 
             if (writeCnt == writesPerTx) {
                 txSubmitted++;
+                final long startTime = txStart;
                 Futures.addCallback(tx.submit(), new FutureCallback<Void>() {
                     @Override
                     public void onSuccess(final Void result) {
-                        txOk++;
+                        txLatency.record(System.nanoTime() - startTime);
+                        txOk.incrementAndGet();
+                        outstandingTx.release();
                     }
                     @Override
                     public void onFailure(final Throwable t) {
                         LOG.error("Transaction failed, {}", t);
-                        txError++;
+                        txError.incrementAndGet();
+                        outstandingTx.release();
                     }
                 });
-                tx = chain.newWriteOnlyTransaction();
                 writeCnt = 0;
             }
         }
@@ -91,21 +112,33 @@ public class TxchainDomDelete extends DatastoreAbstractWriter implements Transac
         // *** Clean up and close the transaction chain ***
         // Submit the outstanding transaction even if it's empty and wait for it to finish
         // We need to empty the transaction chain before closing it
+        if (writeCnt == 0) {
+            txStart = pacer.acquire();
+            outstandingTx.acquire();
+            tx = chain.newWriteOnlyTransaction();
+        }
         try {
             txSubmitted++;
             tx.submit().checkedGet();
-            txOk++;
+            txLatency.record(System.nanoTime() - txStart);
+            txOk.incrementAndGet();
         } catch (TransactionCommitFailedException e) {
             LOG.error("Transaction failed", e);
-            txError++;
+            txError.incrementAndGet();
         }
+        outstandingTx.release();
         try {
             chain.close();
         }
         catch (IllegalStateException e){
             LOG.error("Transaction close failed,", e);
         }
-        LOG.info("Transactions: submitted {}, completed {}", txSubmitted, (txOk + txError));
+        LOG.info("Transactions: submitted {}, completed {}", txSubmitted, (txOk.get() + txError.get()));
+    }
+
+    @Override
+    public int getOutstandingTxHighWater() {
+        return outstandingTx.getHighWaterMark();
     }
 
     @Override
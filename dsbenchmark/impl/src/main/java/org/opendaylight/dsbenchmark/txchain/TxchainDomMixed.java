@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2015 Cisco Systems and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.dsbenchmark.txchain;
+
+import org.opendaylight.controller.md.sal.common.api.data.AsyncTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
+import org.opendaylight.controller.md.sal.common.api.data.TransactionChain;
+import org.opendaylight.controller.md.sal.common.api.data.TransactionChainListener;
+import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
+import org.opendaylight.controller.md.sal.dom.api.DOMDataBroker;
+import org.opendaylight.controller.md.sal.dom.api.DOMDataReadOnlyTransaction;
+import org.opendaylight.controller.md.sal.dom.api.DOMDataWriteTransaction;
+import org.opendaylight.controller.md.sal.dom.api.DOMTransactionChain;
+import org.opendaylight.dsbenchmark.DatastoreAbstractMixed;
+import org.opendaylight.dsbenchmark.DomListBuilder;
+import org.opendaylight.dsbenchmark.ListBuildOptions;
+import org.opendaylight.dsbenchmark.OperationMix;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.StartTestInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.TestExec;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.OuterList;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class TxchainDomMixed extends DatastoreAbstractMixed<MapEntryNode> implements TransactionChainListener {
+    private static final Logger LOG = LoggerFactory.getLogger(TxchainDomMixed.class);
+    private static final QName OL_ID = QName.create(OuterList.QNAME, "id");
+    private static final YangInstanceIdentifier OUTER_LIST_YID =
+            YangInstanceIdentifier.builder().node(TestExec.QNAME).node(OuterList.QNAME).build();
+
+    private final DOMDataBroker domDataBroker;
+    private DOMTransactionChain chain;
+    private DOMDataWriteTransaction tx;
+
+    public TxchainDomMixed(DOMDataBroker domDataBroker, int startId, int outerListElem, int innerListElem,
+                            long writesPerTx, ListBuildOptions listOptions, OperationMix mix) {
+        super(startId, outerListElem, innerListElem, writesPerTx, listOptions, mix);
+        this.domDataBroker = domDataBroker;
+        LOG.info("Created TxchainDomMixed");
+    }
+
+    @Override
+    protected void prepopulate() {
+        LOG.info("TxchainDomMixed: creating data in the data store");
+        // Dump the whole list into the data store in a single transaction
+        // with <outerListElem> PUTs on the transaction
+        TxchainDomWrite dd = new TxchainDomWrite(domDataBroker,
+                StartTestInput.Operation.PUT,
+                startId,
+                outerListElem,
+                innerListElem,
+                outerListElem,
+                listOptions,
+                0);
+        dd.setDataStores(dataStores);
+        dd.createList();
+        dd.executeList();
+    }
+
+    @Override
+    protected Iterable<MapEntryNode> buildList(int[] ids) {
+        return DomListBuilder.buildOuterList(ids, innerListElem, listOptions);
+    }
+
+    @Override
+    protected void beginExecution() {
+        chain = domDataBroker.createTransactionChain(this);
+    }
+
+    @Override
+    protected void endExecution() {
+        try {
+            chain.close();
+        } catch (IllegalStateException e) {
+            LOG.error("Transaction close failed,", e);
+        }
+    }
+
+    @Override
+    protected boolean read(int id) {
+        final DOMDataReadOnlyTransaction readTx = chain.newReadOnlyTransaction();
+        try {
+            readTx.read(dataStores[0], outerListYid(id)).checkedGet();
+            return true;
+        } catch (ReadFailedException e) {
+            LOG.error("Read failed: {}", e.toString());
+            return false;
+        } finally {
+            readTx.close();
+        }
+    }
+
+    @Override
+    protected void write(StartTestInput.Operation op, int id, MapEntryNode element) {
+        if (tx == null) {
+            tx = chain.newWriteOnlyTransaction();
+        }
+        if (op == StartTestInput.Operation.PUT) {
+            for (LogicalDatastoreType dataStore : dataStores) {
+                tx.put(dataStore, outerListYid(id), element);
+            }
+        } else if (op == StartTestInput.Operation.MERGE) {
+            for (LogicalDatastoreType dataStore : dataStores) {
+                tx.merge(dataStore, outerListYid(id), element);
+            }
+        } else {
+            for (LogicalDatastoreType dataStore : dataStores) {
+                tx.delete(dataStore, outerListYid(id));
+            }
+        }
+    }
+
+    @Override
+    protected boolean submit() {
+        try {
+            tx.submit().checkedGet();
+            return true;
+        } catch (TransactionCommitFailedException e) {
+            LOG.error("Transaction failed: {}", e.toString());
+            return false;
+        } finally {
+            tx = null;
+        }
+    }
+
+    @Override
+    public void onTransactionChainFailed(TransactionChain<?, ?> chain,
+            AsyncTransaction<?, ?> transaction, Throwable cause) {
+        LOG.error("Broken chain {} in TxchainDomMixed, transaction {}, cause {}",
+                chain, transaction.getIdentifier(), cause);
+    }
+
+    @Override
+    public void onTransactionChainSuccessful(TransactionChain<?, ?> chain) {
+        LOG.info("Chain {} closed successfully", chain);
+    }
+
+    private static YangInstanceIdentifier outerListYid(int id) {
+        return OUTER_LIST_YID.node(new NodeIdentifierWithPredicates(OuterList.QNAME, OL_ID, id));
+    }
+}
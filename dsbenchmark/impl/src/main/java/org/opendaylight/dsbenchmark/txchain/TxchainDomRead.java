@@ -15,6 +15,8 @@ import org.opendaylight.controller.md.sal.dom.api.DOMDataBroker;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataReadOnlyTransaction;
 import org.opendaylight.controller.md.sal.dom.api.DOMTransactionChain;
 import org.opendaylight.dsbenchmark.DatastoreAbstractWriter;
+import org.opendaylight.dsbenchmark.ListBuildOptions;
+import org.opendaylight.dsbenchmark.PipelinedReads;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.StartTestInput;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.TestExec;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.test.exec.OuterList;
@@ -28,9 +30,12 @@ import org.slf4j.LoggerFactory;
 public class TxchainDomRead extends DatastoreAbstractWriter implements TransactionChainListener{
     private static final Logger LOG = LoggerFactory.getLogger(TxchainDomRead.class);
     private final DOMDataBroker domDataBroker;
+    private final int readWindow;
 
-    public TxchainDomRead(DOMDataBroker domDataBroker, int outerListElem, int innerListElem, long writesPerTx) {
-        super(StartTestInput.Operation.DELETE, outerListElem, innerListElem, writesPerTx);
+    public TxchainDomRead(DOMDataBroker domDataBroker, int startId, int outerListElem,
+                          int innerListElem, long writesPerTx, ListBuildOptions listOptions, int readWindow) {
+        super(StartTestInput.Operation.DELETE, startId, outerListElem, innerListElem, writesPerTx, listOptions);
+        this.readWindow = readWindow;
         this.domDataBroker = domDataBroker;
         LOG.info("Created TxchainDomDelete");
     }
@@ -43,41 +48,71 @@ public class TxchainDomRead extends DatastoreAbstractWriter implements Transacti
         // with <outerListElem> PUTs on the transaction
         TxchainDomWrite dd = new TxchainDomWrite(domDataBroker,
                 StartTestInput.Operation.PUT,
+                startId,
                 outerListElem,
                 innerListElem,
-                outerListElem);
+                outerListElem,
+                listOptions,
+                0);
+        dd.setDataStores(dataStores);
         dd.createList();
         dd.executeList();
     }
 
     @Override
     public void executeList() {
+        if (readWindow > 1) {
+            executePipelined();
+            return;
+        }
 
         org.opendaylight.yangtools.yang.common.QName OL_ID = QName.create(OuterList.QNAME, "id");
         DOMTransactionChain chain = domDataBroker.createTransactionChain(this);
         DOMDataReadOnlyTransaction tx = domDataBroker.newReadOnlyTransaction();
 
         YangInstanceIdentifier pid = YangInstanceIdentifier.builder().node(TestExec.QNAME).node(OuterList.QNAME).build();
-        for (int l = 0; l < outerListElem; l++) {
-            NormalizedNode<?,?> ret;
+        for (int l : outerListIds) {
             YangInstanceIdentifier yid = pid.node(new NodeIdentifierWithPredicates(OuterList.QNAME, OL_ID, l));
             Optional<NormalizedNode<?,?>> optionalDataObject;
-            CheckedFuture<Optional<NormalizedNode<?,?>>, ReadFailedException> submitFuture = tx.read(LogicalDatastoreType.CONFIGURATION, yid);
+            final long readTime = pacer.acquire();
+            CheckedFuture<Optional<NormalizedNode<?,?>>, ReadFailedException> submitFuture = tx.read(dataStores[0], yid);
             try {
                 optionalDataObject = submitFuture.checkedGet();
-                if (optionalDataObject != null && optionalDataObject.isPresent()) {
-                    ret = optionalDataObject.get();
-                    txOk++;
+                txLatency.record(System.nanoTime() - readTime);
+                if (optionalDataObject != null && optionalDataObject.isPresent()
+                        && verifyOuterListNode(optionalDataObject.get(), l)) {
+                    txOk.incrementAndGet();
+                } else {
+                    txError.incrementAndGet();
                 }
             } catch (ReadFailedException e) {
                 LOG.warn("failed to ....", e);
-                txError++;
+                txError.incrementAndGet();
             }
         }
 
 
     }
 
+    private void executePipelined() {
+        final org.opendaylight.yangtools.yang.common.QName OL_ID = QName.create(OuterList.QNAME, "id");
+        final DOMTransactionChain chain = domDataBroker.createTransactionChain(this);
+        final DOMDataReadOnlyTransaction tx = chain.newReadOnlyTransaction();
+        final PipelinedReads reads = new PipelinedReads(readWindow, txLatency, pacer);
+
+        final YangInstanceIdentifier pid = YangInstanceIdentifier.builder().node(TestExec.QNAME).node(OuterList.QNAME).build();
+        for (int l : outerListIds) {
+            final YangInstanceIdentifier yid = pid.node(new NodeIdentifierWithPredicates(OuterList.QNAME, OL_ID, l));
+            reads.read(() -> tx.read(dataStores[0], yid), node -> verifyOuterListNode(node, l));
+        }
+        reads.awaitCompletion();
+        tx.close();
+        chain.close();
+
+        txOk.addAndGet(reads.getReadOk());
+        txError.addAndGet(reads.getReadError());
+    }
+
     @Override
     public void onTransactionChainFailed(TransactionChain<?, ?> chain,
                                          AsyncTransaction<?, ?> transaction, Throwable cause) {
@@ -8,8 +8,7 @@
 
 package org.opendaylight.dsbenchmark.txchain;
 
-import java.util.List;
-
+import java.util.Iterator;
 import org.opendaylight.controller.md.sal.common.api.data.AsyncTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.controller.md.sal.common.api.data.TransactionChain;
@@ -19,6 +18,8 @@ import org.opendaylight.controller.md.sal.dom.api.DOMDataBroker;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataWriteTransaction;
 import org.opendaylight.controller.md.sal.dom.api.DOMTransactionChain;
 import org.opendaylight.dsbenchmark.DatastoreAbstractWriter;
+import org.opendaylight.dsbenchmark.ListBuildOptions;
+import org.opendaylight.dsbenchmark.OutstandingTxLimiter;
 import org.opendaylight.dsbenchmark.DomListBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.StartTestInput;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.TestExec;
@@ -35,18 +36,20 @@ import com.google.common.util.concurrent.Futures;
 public class TxchainDomWrite extends DatastoreAbstractWriter implements TransactionChainListener {
     private static final Logger LOG = LoggerFactory.getLogger(TxchainDomWrite.class);
     private final DOMDataBroker domDataBroker;
-    private List<MapEntryNode> list;
+    private final OutstandingTxLimiter outstandingTx;
+    private Iterable<MapEntryNode> list;
 
-    public TxchainDomWrite(DOMDataBroker domDataBroker, StartTestInput.Operation oper, int outerListElem,
-            int innerListElem, long writesPerTx) {
-        super(oper, outerListElem, innerListElem, writesPerTx);
+    public TxchainDomWrite(DOMDataBroker domDataBroker, StartTestInput.Operation oper, int startId, int outerListElem,
+            int innerListElem, long writesPerTx, ListBuildOptions listOptions, int maxOutstandingTx) {
+        super(oper, startId, outerListElem, innerListElem, writesPerTx, listOptions);
+        this.outstandingTx = new OutstandingTxLimiter(maxOutstandingTx);
         this.domDataBroker = domDataBroker;
         LOG.info("Created TxchainDomWrite");
     }
 
     @Override
     public void createList() {
-        list = DomListBuilder.buildOuterList(this.outerListElem, this.innerListElem);
+        list = DomListBuilder.buildOuterList(this.outerListIds, this.innerListElem, listOptions);
     }
 
     @Override
@@ -55,34 +58,50 @@ public class TxchainDomWrite extends DatastoreAbstractWriter implements Transact
         int writeCnt = 0;
 
         DOMTransactionChain chain = domDataBroker.createTransactionChain(this);
-        DOMDataWriteTransaction tx = chain.newWriteOnlyTransaction();
+        DOMDataWriteTransaction tx = null;
+        long txStart = 0;
 
         YangInstanceIdentifier pid = YangInstanceIdentifier.builder().node(TestExec.QNAME).node(OuterList.QNAME).build();
-        for (MapEntryNode element : this.list) {
+        final Iterator<MapEntryNode> elements = this.list.iterator();
+        while (elements.hasNext()) {
+            if (writeCnt == 0) {
+                txStart = pacer.acquire();
+                outstandingTx.acquire();
+                tx = chain.newWriteOnlyTransaction();
+            }
+            final MapEntryNode element = elements.next();
             YangInstanceIdentifier yid = pid.node(new NodeIdentifierWithPredicates(OuterList.QNAME, element.getIdentifier().getKeyValues()));
 
             if (oper == StartTestInput.Operation.PUT) {
-                tx.put(LogicalDatastoreType.CONFIGURATION, yid, element);
+                for (LogicalDatastoreType dataStore : dataStores) {
+                    tx.put(dataStore, yid, element);
+                }
             } else {
-                tx.merge(LogicalDatastoreType.CONFIGURATION, yid, element);
+                for (LogicalDatastoreType dataStore : dataStores) {
+                    tx.merge(dataStore, yid, element);
+                }
             }
 
             writeCnt++;
 
             if (writeCnt == writesPerTx) {
                 txSubmitted++;
+                final long startTime = txStart;
+                beforeSubmit();
                 Futures.addCallback(tx.submit(), new FutureCallback<Void>() {
                     @Override
                     public void onSuccess(final Void result) {
-                        txOk++;
+                        txLatency.record(System.nanoTime() - startTime);
+                        txOk.incrementAndGet();
+                        outstandingTx.release();
                     }
                     @Override
                     public void onFailure(final Throwable t) {
                         LOG.error("Transaction failed, {}", t);
-                        txError++;
+                        txError.incrementAndGet();
+                        outstandingTx.release();
                     }
                 });
-                tx = chain.newWriteOnlyTransaction();
                 writeCnt = 0;
             }
         }
@@ -90,21 +109,34 @@ public class TxchainDomWrite extends DatastoreAbstractWriter implements Transact
         // *** Clean up and close the transaction chain ***
         // Submit the outstanding transaction even if it's empty and wait for it to finish
         // We need to empty the transaction chain before closing it
+        if (writeCnt == 0) {
+            txStart = pacer.acquire();
+            outstandingTx.acquire();
+            tx = chain.newWriteOnlyTransaction();
+        }
         try {
             txSubmitted++;
+            beforeSubmit();
             tx.submit().checkedGet();
-            txOk++;
+            txLatency.record(System.nanoTime() - txStart);
+            txOk.incrementAndGet();
         } catch (TransactionCommitFailedException e) {
             LOG.error("Transaction failed", e);
-            txError++;
+            txError.incrementAndGet();
         }
+        outstandingTx.release();
         try {
             chain.close();
         }
         catch (IllegalStateException e){
             LOG.error("Transaction close failed,", e);
         }
-        LOG.info("Transactions: submitted {}, completed {}", txSubmitted, (txOk + txError));
+        LOG.info("Transactions: submitted {}, completed {}", txSubmitted, (txOk.get() + txError.get()));
+    }
+
+    @Override
+    public int getOutstandingTxHighWater() {
+        return outstandingTx.getHighWaterMark();
     }
 
     @Override
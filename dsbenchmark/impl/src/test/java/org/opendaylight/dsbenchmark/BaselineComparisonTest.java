@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2015 Cisco Systems and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.dsbenchmark;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class BaselineComparisonTest {
+    private static final int THRESHOLD = 15;
+
+    @Test
+    public void testOpsPerSecRegression() {
+        final BaselineComparison comparison = compareOne(
+                results("0", new long[] { 1000, 1010, 990 }, 100),
+                results("0", new long[] { 800, 810, 790 }, 100));
+        assertEquals(-20, comparison.getOpsPerSecChange(), 1e-9);
+        assertTrue(comparison.isRegression());
+    }
+
+    @Test
+    public void testChangeBelowThreshold() {
+        final BaselineComparison comparison = compareOne(
+                results("0", new long[] { 1000, 1010, 990 }, 100),
+                results("0", new long[] { 900, 910, 890 }, 100));
+        assertFalse(comparison.isRegression());
+    }
+
+    @Test
+    public void testChangeNotSignificant() {
+        // 20% slower on average, but the baseline varies too much to tell
+        final BaselineComparison comparison = compareOne(
+                results("0", new long[] { 1000, 600, 1400 }, 100),
+                results("0", new long[] { 800, 800, 800 }, 100));
+        assertFalse(comparison.isRegression());
+    }
+
+    @Test
+    public void testSingleResultsUseThresholdOnly() {
+        assertTrue(compareOne(results("0", new long[] { 1000 }, 100),
+                results("0", new long[] { 840 }, 100)).isRegression());
+        assertFalse(compareOne(results("0", new long[] { 1000 }, 100),
+                results("0", new long[] { 860 }, 100)).isRegression());
+    }
+
+    @Test
+    public void testP99Regression() {
+        final BaselineComparison comparison = compareOne(
+                results("0", new long[] { 1000, 1000 }, 100),
+                results("0", new long[] { 1000, 1000 }, 150));
+        assertEquals(50, comparison.getP99Change(), 1e-9);
+        assertTrue(comparison.isRegression());
+    }
+
+    @Test
+    public void testOnlyMatchingWorkloadsCompared() {
+        final List<TestResult> baseline = new ArrayList<>(results("0", new long[] { 1000 }, 100));
+        baseline.addAll(results("64", new long[] { 500 }, 100));
+        final List<TestResult> candidate = results("64", new long[] { 500 }, 100);
+        candidate.addAll(results("128", new long[] { 100 }, 100));
+
+        final List<BaselineComparison> comparisons = BaselineComparison.compare(baseline, candidate, THRESHOLD);
+        assertEquals(1, comparisons.size());
+        assertTrue(comparisons.get(0).getTestKey().contains("value-size=64"));
+        assertFalse(comparisons.get(0).isRegression());
+    }
+
+    @Test
+    public void testResultSurvivesCsv() {
+        final TestResult result = results("64", new long[] { 1234 }, 56).get(0);
+        final TestResult parsed = TestResult.fromCsv(result.toCsv());
+        assertEquals(result.getTestKey(), parsed.getTestKey());
+        assertEquals(result.getParameters(), parsed.getParameters());
+        assertEquals(1234, parsed.getOpsPerSec());
+        assertEquals(56, parsed.getLatencyP99());
+    }
+
+    private static BaselineComparison compareOne(List<TestResult> baseline, List<TestResult> candidate) {
+        final List<BaselineComparison> comparisons = BaselineComparison.compare(baseline, candidate, THRESHOLD);
+        assertEquals(1, comparisons.size());
+        return comparisons.get(0);
+    }
+
+    /**
+     * Returns one result per opsPerSec value, for a PUT test with the given
+     * value-size.
+     */
+    private static List<TestResult> results(String valueSize, long[] opsPerSec, long latencyP99) {
+        final Map<String, String> params = new HashMap<>();
+        for (String name : TestResult.WORKLOAD_PARAMETERS) {
+            params.put(name, "1");
+        }
+        params.put("operation", "PUT");
+        params.put("value-size", valueSize);
+
+        final List<TestResult> results = new ArrayList<>();
+        for (int i = 0; i < opsPerSec.length; i++) {
+            results.add(new TestResult("2015-01-05T00:00:00Z", i, "tag", params, 1000000, opsPerSec[i],
+                    opsPerSec[i], 0, latencyP99 / 2, latencyP99, latencyP99 * 2));
+        }
+        return results;
+    }
+}
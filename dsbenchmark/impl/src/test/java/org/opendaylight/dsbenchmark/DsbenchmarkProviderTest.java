@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2015 Cisco Systems and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.dsbenchmark;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.test.AbstractConcurrentDataBrokerTest;
+import org.opendaylight.controller.sal.binding.api.BindingAwareBroker.ProviderContext;
+import org.opendaylight.controller.sal.binding.api.BindingAwareBroker.RpcRegistration;
+import org.opendaylight.mdsal.common.api.LogicalDatastoreType;
+import org.opendaylight.mdsal.dom.api.DOMDataTreeIdentifier;
+import org.opendaylight.mdsal.dom.api.DOMDataTreeProducer;
+import org.opendaylight.mdsal.dom.api.DOMDataTreeService;
+import org.opendaylight.mdsal.dom.broker.ShardedDOMDataTree;
+import org.opendaylight.mdsal.dom.store.inmemory.InMemoryDOMDataTreeShard;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.DsbenchmarkService;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.StartTestInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.StartTestInputBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dsbenchmark.rev150105.StartTestOutput;
+import org.opendaylight.yangtools.concepts.ListenerRegistration;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the dsbenchmark test matrix against in-process in-memory data
+ * stores, without Karaf or RESTCONF. The size of each test and an optional
+ * throughput floor are set with system properties, for example:
+ * <pre>
+ *   mvn verify -Ddsbenchmark.outerElements=100000 -Ddsbenchmark.minOpsPerSec=20000
+ * </pre>
+ * SHARDED-PRODUCER tests write to an in-memory shard of the configuration
+ * data store, registered with a ShardedDOMDataTree; they use a single
+ * writer thread and only cover the operations a producer supports. Each of
+ * them gets a new shard, since the cleanup does not reach the shard.
+ */
+public class DsbenchmarkProviderTest extends AbstractConcurrentDataBrokerTest {
+    private static final Logger LOG = LoggerFactory.getLogger(DsbenchmarkProviderTest.class);
+
+    private static final long OUTER_ELEMENTS = Long.getLong("dsbenchmark.outerElements", 1000);
+    private static final long INNER_ELEMENTS = Long.getLong("dsbenchmark.innerElements", 10);
+    private static final long PUTS_PER_TX = Long.getLong("dsbenchmark.putsPerTx", 100);
+    private static final long WRITER_THREADS = Long.getLong("dsbenchmark.writerThreads", 1);
+    // 0 disables the throughput check
+    private static final long MIN_OPS_PER_SEC = Long.getLong("dsbenchmark.minOpsPerSec", 0);
+
+    private static final StartTestInput.TransactionType[] TX_TYPES = {
+        StartTestInput.TransactionType.SIMPLETX, StartTestInput.TransactionType.TXCHAINING };
+    private static final StartTestInput.Operation[] SHARDED_OPERATIONS = {
+        StartTestInput.Operation.PUT, StartTestInput.Operation.MERGE, StartTestInput.Operation.DELETE };
+    private static final DOMDataTreeIdentifier CONFIG_ROOT =
+            new DOMDataTreeIdentifier(LogicalDatastoreType.CONFIGURATION, YangInstanceIdentifier.EMPTY);
+
+    private final ExecutorService shardExecutor = Executors.newSingleThreadExecutor();
+    private ListenerRegistration<InMemoryDOMDataTreeShard> shardReg;
+    private DsbenchmarkProvider provider;
+    private String karafData;
+
+    @Before
+    public void setUpProvider() throws Exception {
+        // Keep the results store out of the source tree
+        karafData = System.getProperty("karaf.data");
+        System.setProperty("karaf.data", "target/karaf-data");
+        provider = newProvider(createShardedDataTree());
+    }
+
+    @SuppressWarnings("unchecked")
+    private DsbenchmarkProvider newProvider(DOMDataTreeService dataTreeService) {
+        final ProviderContext session = mock(ProviderContext.class);
+        when(session.getSALService(DataBroker.class)).thenReturn(getDataBroker());
+        when(session.addRpcImplementation(eq(DsbenchmarkService.class), any(DsbenchmarkService.class)))
+                .thenReturn(mock(RpcRegistration.class));
+
+        final DsbenchmarkProvider newProvider = new DsbenchmarkProvider(getDomBroker(), getDataBroker(),
+                dataTreeService);
+        newProvider.onSessionInitiated(session);
+        return newProvider;
+    }
+
+    /**
+     * Returns a DOMDataTreeService backed by a new, empty in-memory shard
+     * that holds the whole configuration data store.
+     */
+    private ShardedDOMDataTree createShardedDataTree() throws Exception {
+        final InMemoryDOMDataTreeShard shard = InMemoryDOMDataTreeShard.create(CONFIG_ROOT, shardExecutor, 1);
+        shard.onGlobalContextUpdated(getSchemaContext());
+
+        final ShardedDOMDataTree dataTree = new ShardedDOMDataTree();
+        final DOMDataTreeProducer shardRegProducer = dataTree.createProducer(Collections.singleton(CONFIG_ROOT));
+        shardReg = dataTree.registerDataTreeShard(CONFIG_ROOT, shard, shardRegProducer);
+        // The test's own producers attach to subtrees of the shard
+        shardRegProducer.close();
+        return dataTree;
+    }
+
+    private void closeProvider() throws Exception {
+        provider.close();
+        if (shardReg != null) {
+            shardReg.close();
+            shardReg = null;
+        }
+    }
+
+    @After
+    public void tearDownProvider() throws Exception {
+        closeProvider();
+        shardExecutor.shutdownNow();
+        if (karafData != null) {
+            System.setProperty("karaf.data", karafData);
+        } else {
+            System.clearProperty("karaf.data");
+        }
+    }
+
+    @Test
+    public void testMatrix() throws Exception {
+        for (StartTestInput.TransactionType txType : TX_TYPES) {
+            for (StartTestInput.DataFormat dataFormat : StartTestInput.DataFormat.values()) {
+                for (StartTestInput.Operation oper : StartTestInput.Operation.values()) {
+                    runTest(txType, dataFormat, oper, WRITER_THREADS);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testShardedProducer() throws Exception {
+        // Producer cursors write normalized nodes, so the data format makes no difference
+        for (StartTestInput.Operation oper : SHARDED_OPERATIONS) {
+            // The cleanup between tests only resets the DOMDataBroker stores, not
+            // the shard, so each operation starts from an empty shard of its own
+            closeProvider();
+            provider = newProvider(createShardedDataTree());
+            runTest(StartTestInput.TransactionType.SHARDEDPRODUCER, StartTestInput.DataFormat.BINDINGINDEPENDENT,
+                    oper, 1);
+        }
+    }
+
+    private void runTest(StartTestInput.TransactionType txType, StartTestInput.DataFormat dataFormat,
+            StartTestInput.Operation oper, long writerThreads) throws Exception {
+        final String name = txType + "/" + dataFormat + "/" + oper;
+        final StartTestOutput output = provider.startTest(new StartTestInputBuilder()
+                .setTransactionType(txType)
+                .setDataFormat(dataFormat)
+                .setOperation(oper)
+                .setOuterElements(OUTER_ELEMENTS)
+                .setInnerElements(INNER_ELEMENTS)
+                .setPutsPerTx(PUTS_PER_TX)
+                .setWriterThreads(writerThreads)
+                .setReadWindow(1L)
+                .setProgressInterval(0L)
+                .build()).get().getResult();
+
+        assertEquals(name + " status", StartTestOutput.Status.OK, output.getStatus());
+        assertEquals(name + " failed transactions", Long.valueOf(0), output.getTxError());
+
+        final long opsPerSec = output.getExecTime() > 0 ? OUTER_ELEMENTS * 1000000 / output.getExecTime() : 0;
+        LOG.info("{}: listBuildTime {} us, execTime {} us, {} ops/s, txOk {}, p99 latency {} us",
+                name, output.getListBuildTime(), output.getExecTime(), opsPerSec, output.getTxOk(),
+                output.getTxLatency().getP99());
+        if (MIN_OPS_PER_SEC > 0) {
+            assertTrue(name + " throughput " + opsPerSec + " ops/s is below " + MIN_OPS_PER_SEC,
+                    opsPerSec >= MIN_OPS_PER_SEC);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2015 Cisco Systems and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.dsbenchmark;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class SummaryStatisticsTest {
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void testSmallSample() {
+        final SummaryStatistics stats = new SummaryStatistics(new long[] { 30, 10, 20 });
+        assertEquals(3, stats.getSamples());
+        assertEquals(20, stats.getMean(), DELTA);
+        assertEquals(10, stats.getStddev(), DELTA);
+        assertEquals(10, stats.getMin());
+        assertEquals(30, stats.getMax());
+        // t for 2 degrees of freedom
+        assertEquals(4.303 * 10 / Math.sqrt(3), stats.getConfidenceHalfWidth(), DELTA);
+    }
+
+    @Test
+    public void testSingleSample() {
+        final SummaryStatistics stats = new SummaryStatistics(new long[] { 42 });
+        assertEquals(42, stats.getMean(), DELTA);
+        assertEquals(0, stats.getStddev(), DELTA);
+        assertEquals(0, stats.getConfidenceHalfWidth(), DELTA);
+    }
+
+    @Test
+    public void testLargeSampleUsesNormalQuantile() {
+        final long[] values = new long[32];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i % 2 == 0 ? 0 : 2;
+        }
+        final SummaryStatistics stats = new SummaryStatistics(values);
+        assertEquals(1, stats.getMean(), DELTA);
+        assertEquals(Math.sqrt(32.0 / 31), stats.getStddev(), DELTA);
+        assertEquals(1.960 * stats.getStddev() / Math.sqrt(32), stats.getConfidenceHalfWidth(), DELTA);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoSamples() {
+        new SummaryStatistics(new long[0]);
+    }
+}
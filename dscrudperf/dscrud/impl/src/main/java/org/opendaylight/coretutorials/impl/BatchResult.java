@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2015 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.coretutorials.impl;
+
+import java.util.Arrays;
+
+/**
+ * The outcome of a single batch CRUD call.
+ */
+public final class BatchResult {
+
+    private final int resources;
+    private final int skipped;
+    private final int txOk;
+    private final int txError;
+    private final long execTime;
+    private final long[] sortedBatchLatency;
+
+    /**
+     * @param resources ids created, read or deleted
+     * @param skipped ids that failed the existence check
+     * @param execTime time (in microseconds) spent checking and committing
+     * @param batchLatency time (in microseconds) each batch took to build and commit
+     */
+    public BatchResult(int resources, int skipped, int txOk, int txError, long execTime, long[] batchLatency) {
+        this.resources = resources;
+        this.skipped = skipped;
+        this.txOk = txOk;
+        this.txError = txError;
+        this.execTime = execTime;
+        this.sortedBatchLatency = batchLatency.clone();
+        Arrays.sort(this.sortedBatchLatency);
+    }
+
+    public int getResources() {
+        return resources;
+    }
+
+    public int getSkipped() {
+        return skipped;
+    }
+
+    public int getTxOk() {
+        return txOk;
+    }
+
+    public int getTxError() {
+        return txError;
+    }
+
+    public long getExecTime() {
+        return execTime;
+    }
+
+    public int getBatches() {
+        return sortedBatchLatency.length;
+    }
+
+    public long getResourcesPerSec() {
+        return execTime > 0 ? resources * 1000000L / execTime : 0;
+    }
+
+    /**
+     * Returns the batch latency at the given percentile (nearest rank), or 0 if no batch was committed.
+     */
+    public long getBatchLatency(double percentile) {
+        if (sortedBatchLatency.length == 0) {
+            return 0;
+        }
+        final int rank = (int) Math.ceil(percentile / 100 * sortedBatchLatency.length);
+        return sortedBatchLatency[Math.max(0, Math.min(sortedBatchLatency.length - 1, rank - 1))];
+    }
+}
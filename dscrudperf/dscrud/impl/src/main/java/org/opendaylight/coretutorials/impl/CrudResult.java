@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2015 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.coretutorials.impl;
+
+/**
+ * The transaction and verification counts of a single CRUD call.
+ */
+public final class CrudResult {
+
+    private final int txOk;
+    private final int txError;
+    private final int verifyOk;
+    private final int verifyError;
+
+    public CrudResult(int txOk, int txError, int verifyOk, int verifyError) {
+        this.txOk = txOk;
+        this.txError = txError;
+        this.verifyOk = verifyOk;
+        this.verifyError = verifyError;
+    }
+
+    public int getTxOk() {
+        return txOk;
+    }
+
+    public int getTxError() {
+        return txError;
+    }
+
+    public int getVerifyOk() {
+        return verifyOk;
+    }
+
+    public int getVerifyError() {
+        return verifyError;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2015 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.coretutorials.impl;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Totals over all CRUD calls. The counters are LongAdders, so that many
+ * concurrent callers can update them without contending on a shared
+ * cache line; the sums are only computed when the totals are published.
+ */
+public final class CrudTotals {
+
+    private final LongAdder operations = new LongAdder();
+    private final LongAdder txOk = new LongAdder();
+    private final LongAdder txError = new LongAdder();
+    private final LongAdder verifyOk = new LongAdder();
+    private final LongAdder verifyError = new LongAdder();
+
+    public void add(CrudResult result) {
+        operations.increment();
+        if (result.getTxOk() != 0) {
+            txOk.add(result.getTxOk());
+        }
+        if (result.getTxError() != 0) {
+            txError.add(result.getTxError());
+        }
+        if (result.getVerifyOk() != 0) {
+            verifyOk.add(result.getVerifyOk());
+        }
+        if (result.getVerifyError() != 0) {
+            verifyError.add(result.getVerifyError());
+        }
+    }
+
+    public long getOperations() {
+        return operations.sum();
+    }
+
+    public long getTxOk() {
+        return txOk.sum();
+    }
+
+    public long getTxError() {
+        return txError.sum();
+    }
+
+    public long getVerifyOk() {
+        return verifyOk.sum();
+    }
+
+    public long getVerifyError() {
+        return verifyError.sum();
+    }
+}
@@ -8,8 +8,15 @@
 package org.opendaylight.coretutorials.impl;
 
 import com.google.common.util.concurrent.ListenableFuture;
-import com.google.common.util.concurrent.Monitor;
+import com.google.common.util.concurrent.Striped;
+import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
@@ -18,6 +25,7 @@ import org.opendaylight.controller.sal.binding.api.BindingAwareBroker;
 import org.opendaylight.controller.sal.binding.api.BindingAwareBroker.ProviderContext;
 import org.opendaylight.controller.sal.binding.api.BindingAwareProvider;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dscrud.rev150105.*;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dscrud.rev150105.do.crud.batch.output.BatchLatencyBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dscrud.rev150105.test.exec.OuterList;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 import org.opendaylight.yangtools.yang.common.RpcResult;
@@ -30,10 +38,20 @@ public class DscrudProvider implements BindingAwareProvider, DscrudService, Auto
     private static final Logger LOG = LoggerFactory.getLogger(DscrudProvider.class);
 
     private static final InstanceIdentifier<TestExec> TEST_EXEC_IID = InstanceIdentifier.builder(TestExec.class).build();
+    // Enough stripes that concurrent callers rarely share a lock
+    private static final int CRUD_LOCK_STRIPES = 1024;
+    private static final InstanceIdentifier<CrudStats> CRUD_STATS_IID = InstanceIdentifier.create(CrudStats.class);
+    // Interval (in milliseconds) at which the crud totals are published
+    private static final long STATS_INTERVAL = 1000;
     private BindingAwareBroker.RpcRegistration<DscrudService> dstReg;
     private DataBroker dataBroker;
-    private Monitor crudMonitor;
+    private Striped<Lock> crudLocks;
+    private OuterListIndex outerListIndex;
     private SimpleTxCrudMonitor simpletxCrudMonitor;
+    private ThreadTransactionChains txChains;
+    private final CrudTotals crudTotals = new CrudTotals();
+    private final ScheduledExecutorService statsExecutor = Executors.newSingleThreadScheduledExecutor();
+    private long publishedOperations = -1;
     private long testsCompleted = 0;
 
     @Override
@@ -41,9 +59,14 @@ public class DscrudProvider implements BindingAwareProvider, DscrudService, Auto
         this.dataBroker = session.getSALService(DataBroker.class);
         this.dstReg = session.addRpcImplementation(DscrudService.class, this);
 
-        // this is for the simple tx crud monitor where Create/Delete are "semaphore" protected, and reads run concurrently
-        crudMonitor = new Monitor();
-        simpletxCrudMonitor = new SimpleTxCrudMonitor(this.dataBroker, crudMonitor);
+        // this is for the simple tx crud monitor where Create/Delete are locked per outer list id, and reads run concurrently
+        crudLocks = Striped.lock(CRUD_LOCK_STRIPES);
+        outerListIndex = new OuterListIndex();
+        simpletxCrudMonitor = new SimpleTxCrudMonitor(this.dataBroker, crudLocks, outerListIndex);
+        // The monitor has created outer list 0, so the first notification warms up the index
+        outerListIndex.register(this.dataBroker);
+        txChains = new ThreadTransactionChains(this.dataBroker);
+        statsExecutor.scheduleWithFixedDelay(this::publishCrudStats, 0, STATS_INTERVAL, TimeUnit.MILLISECONDS);
         LOG.info("DscrudProvider Session Initiated");
     }
 
@@ -52,6 +75,13 @@ public class DscrudProvider implements BindingAwareProvider, DscrudService, Auto
         if (dstReg != null) {
             dstReg.close();
         }
+        statsExecutor.shutdownNow();
+        if (outerListIndex != null) {
+            outerListIndex.close();
+        }
+        if (txChains != null) {
+            txChains.close();
+        }
         LOG.info("DscrudProvider Closed");
     }
 
@@ -77,29 +107,118 @@ public class DscrudProvider implements BindingAwareProvider, DscrudService, Auto
         DoCrudInput.Operation oper = input.getOperation();
         int outerListId = input.getOuterElementId().intValue();
         int numInnerListElements = input.getInnerElements().intValue();
-        
+        // TX-CHAINING reuses the calling thread's transaction chain; SIMPLE-TX, the default, uses standalone transactions
+        final boolean chaining = input.getTransactionType() == DoCrudInput.TransactionType.TXCHAINING;
+
         // Run the test and measure the execution time
+        final CrudResult result;
         try {
-            simpletxCrudMonitor.doOper(oper, outerListId, numInnerListElements);
+            result = simpletxCrudMonitor.doOper(chaining ? txChains.get() : dataBroker, oper, outerListId,
+                    numInnerListElements);
 
         } catch ( Exception e ) {
             LOG.error( "Test error: {}", e.toString());
+            if (chaining) {
+                // The chain may be broken; the thread's next call starts a new one
+                txChains.reset();
+            }
             return RpcResultBuilder.success(new DoCrudOutputBuilder()
                     .setStatus(DoCrudOutput.Status.FAILED)
                     .build()).buildFuture();
         }
         
+        crudTotals.add(result);
         DoCrudOutput output = new DoCrudOutputBuilder()
                 .setStatus(DoCrudOutput.Status.OK)
-                .setTxOk((long) simpletxCrudMonitor.txOk)
-                .setTxError((long) simpletxCrudMonitor.txError)
-                .setVerifyError((long) simpletxCrudMonitor.verifyError)
-                .setVerifyOk((long) simpletxCrudMonitor.verifyOk)
+                .setTxOk((long) result.getTxOk())
+                .setTxError((long) result.getTxError())
+                .setVerifyError((long) result.getVerifyError())
+                .setVerifyOk((long) result.getVerifyOk())
                 .build();
 
         return RpcResultBuilder.success(output).buildFuture();
     }
 
+    /**
+     * Perform a crud operation on a list of outer elements
+     *
+     */
+    @Override
+    public ListenableFuture<RpcResult<DoCrudBatchOutput>> doCrudBatch(DoCrudBatchInput input) {
+        // Both operation enums have the same members
+        final DoCrudInput.Operation oper = DoCrudInput.Operation.valueOf(input.getOperation().name());
+        final List<Integer> outerListIds = new ArrayList<>();
+        if (input.getOuterElementIds() != null) {
+            for (Long id : input.getOuterElementIds()) {
+                outerListIds.add(id.intValue());
+            }
+        }
+        final boolean chaining = input.getTransactionType() == DoCrudBatchInput.TransactionType.TXCHAINING;
+        final int innerElements = input.getInnerElements() != null ? input.getInnerElements().intValue() : 1;
+        final int batchSize = input.getBatchSize() != null
+                ? (int) Math.min(Integer.MAX_VALUE, input.getBatchSize()) : 100;
+
+        final BatchResult result;
+        try {
+            result = simpletxCrudMonitor.doBatchOper(chaining ? txChains.get() : dataBroker, oper, outerListIds,
+                    innerElements, batchSize);
+        } catch ( Exception e ) {
+            LOG.error( "Batch error: {}", e.toString());
+            if (chaining) {
+                txChains.reset();
+            }
+            return RpcResultBuilder.success(new DoCrudBatchOutputBuilder()
+                    .setStatus(DoCrudBatchOutput.Status.FAILED)
+                    .build()).buildFuture();
+        }
+
+        crudTotals.add(new CrudResult(result.getTxOk(), result.getTxError(), 0, 0));
+        DoCrudBatchOutput output = new DoCrudBatchOutputBuilder()
+                .setStatus(DoCrudBatchOutput.Status.OK)
+                .setResources((long) result.getResources())
+                .setSkipped((long) result.getSkipped())
+                .setTxOk((long) result.getTxOk())
+                .setTxError((long) result.getTxError())
+                .setBatches((long) result.getBatches())
+                .setExecTime(result.getExecTime())
+                .setResourcesPerSec(result.getResourcesPerSec())
+                .setBatchLatency(new BatchLatencyBuilder()
+                        .setP50(result.getBatchLatency(50))
+                        .setP90(result.getBatchLatency(90))
+                        .setP99(result.getBatchLatency(99))
+                        .setMax(result.getBatchLatency(100))
+                        .build())
+                .build();
+
+        return RpcResultBuilder.success(output).buildFuture();
+    }
+
+    /**
+     * Writes the crud totals to the operational data store, unless they
+     * have not changed since they were last written.
+     */
+    private void publishCrudStats() {
+        final long operations = crudTotals.getOperations();
+        if (operations == publishedOperations) {
+            return;
+        }
+
+        WriteTransaction tx = dataBroker.newWriteOnlyTransaction();
+        tx.put(LogicalDatastoreType.OPERATIONAL, CRUD_STATS_IID, new CrudStatsBuilder()
+                .setOperations(BigInteger.valueOf(operations))
+                .setTxOk(BigInteger.valueOf(crudTotals.getTxOk()))
+                .setTxError(BigInteger.valueOf(crudTotals.getTxError()))
+                .setVerifyOk(BigInteger.valueOf(crudTotals.getVerifyOk()))
+                .setVerifyError(BigInteger.valueOf(crudTotals.getVerifyError()))
+                .build());
+        try {
+            tx.submit().checkedGet();
+            publishedOperations = operations;
+        } catch (TransactionCommitFailedException e) {
+            LOG.warn("Failed to publish crud totals", e);
+        }
+    }
+
     private void cleanupTestStore() {
         TestExec data = new TestExecBuilder()
                 .setOuterList(Collections.<OuterList>emptyList())
@@ -107,12 +226,16 @@ public class DscrudProvider implements BindingAwareProvider, DscrudService, Auto
 
         WriteTransaction tx = dataBroker.newWriteOnlyTransaction();
         tx.put(LogicalDatastoreType.OPERATIONAL, TEST_EXEC_IID, data);
+        // The index does not track the replacement of test-exec per id, so it reads until it has relistened
+        outerListIndex.invalidateAll();
         try {
             tx.submit().checkedGet();
             LOG.info("DataStore test data cleaned up");
         } catch (TransactionCommitFailedException e) {
             LOG.info("Failed to cleanup DataStore test data");
             throw new IllegalStateException(e);
+        } finally {
+            outerListIndex.relisten();
         }
     }
 }
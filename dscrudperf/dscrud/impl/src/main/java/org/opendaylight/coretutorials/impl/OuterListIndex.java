@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2015 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.coretutorials.impl;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.opendaylight.controller.md.sal.binding.api.ClusteredDataTreeChangeListener;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.DataTreeIdentifier;
+import org.opendaylight.controller.md.sal.binding.api.DataTreeModification;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dscrud.rev150105.TestExec;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dscrud.rev150105.test.exec.OuterList;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dscrud.rev150105.test.exec.OuterListKey;
+import org.opendaylight.yangtools.concepts.ListenerRegistration;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In-memory set of the outer list ids that exist in the data store, kept up to date by a data tree change listener
+ * on test-exec, so that the CREATE and DELETE pre-checks need no reads. A create or delete writes the outer list
+ * element and its inner list entry under outer list 0 in one transaction, so the outer list id stands for both.
+ *
+ * The set only changes on notifications, which arrive some time after the commit. An id is therefore unsettled,
+ * and must be checked in the data store, from just before its commit until the notification of that commit
+ * arrives; all ids are unsettled until the first notification arrives. Outer list 0 holds the inner list entries
+ * and is never indexed.
+ *
+ * A write that replaces the whole test-exec container is not tracked per id. It must be wrapped in invalidateAll()
+ * and relisten(), which drop the index and start a new listener: all ids stay unsettled until the first
+ * notification of the new listener, which holds the outer lists that exist by then. Notifications of the old
+ * listener are ignored. An id whose commit is in flight across the replacement may stay unsettled, which only costs
+ * reads.
+ */
+public class OuterListIndex implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(OuterListIndex.class);
+
+    private static final InstanceIdentifier<OuterList> OUTER_LIST_IID = InstanceIdentifier.create(TestExec.class)
+            .child(OuterList.class);
+
+    private final Set<Integer> ids = ConcurrentHashMap.newKeySet();
+    // Number of commits per id whose notification has not arrived yet
+    private final Map<Integer, Integer> pendingCommits = new ConcurrentHashMap<>();
+    private volatile boolean ready = false;
+    // Guarded by this: the listener generation whose notifications are applied, and its registration
+    private int generation = 0;
+    private DataBroker dataBroker;
+    private ListenerRegistration<?> registration;
+
+    /**
+     * Starts listening. The first notification holds the outer lists that already exist, so register after outer
+     * list 0 has been created, or the index stays cold until the first create.
+     */
+    public synchronized void register(DataBroker broker) {
+        this.dataBroker = broker;
+        listen();
+    }
+
+    private void listen() {
+        final int listenerGeneration = generation;
+        registration = dataBroker.registerDataTreeChangeListener(
+                new DataTreeIdentifier<>(LogicalDatastoreType.OPERATIONAL, OUTER_LIST_IID),
+                (ClusteredDataTreeChangeListener<OuterList>) changes -> onDataTreeChanged(listenerGeneration, changes));
+    }
+
+    /**
+     * Drops the index, before a write that replaces the test-exec container. All ids are unsettled until relisten()
+     * has been called and the new listener's first notification arrives.
+     */
+    public synchronized void invalidateAll() {
+        ready = false;
+        generation++;
+        ids.clear();
+        if (registration != null) {
+            registration.close();
+            registration = null;
+        }
+    }
+
+    /**
+     * Starts a new listener after invalidateAll(), once the write that replaced the test-exec container has
+     * completed or failed. Does nothing if the index was never registered.
+     */
+    public synchronized void relisten() {
+        if (dataBroker != null && registration == null) {
+            listen();
+        }
+    }
+
+    /**
+     * Returns true if the index holds the current state of the id, as far as this node's own commits go.
+     */
+    public boolean isSettled(int id) {
+        return ready && id != 0 && !pendingCommits.containsKey(id);
+    }
+
+    public boolean contains(int id) {
+        return ids.contains(id);
+    }
+
+    /**
+     * Marks the ids unsettled until the notification of the commit arrives. Called before submitting, since the
+     * notification may arrive before the commit future completes.
+     */
+    public void beforeCommit(Collection<Integer> committedIds) {
+        for (int id : committedIds) {
+            if (id != 0) {
+                pendingCommits.merge(id, 1, Integer::sum);
+            }
+        }
+    }
+
+    /**
+     * Undoes beforeCommit for a commit that failed, and so will not be notified.
+     */
+    public void commitFailed(Collection<Integer> committedIds) {
+        for (int id : committedIds) {
+            if (id != 0) {
+                settle(id);
+            }
+        }
+    }
+
+    private void settle(int id) {
+        pendingCommits.computeIfPresent(id, (k, count) -> count > 1 ? count - 1 : null);
+    }
+
+    /**
+     * Applies a notification of the current listener.
+     */
+    synchronized void onDataTreeChanged(Collection<DataTreeModification<OuterList>> changes) {
+        onDataTreeChanged(generation, changes);
+    }
+
+    private synchronized void onDataTreeChanged(int listenerGeneration,
+            Collection<DataTreeModification<OuterList>> changes) {
+        if (listenerGeneration != generation) {
+            LOG.debug("Ignoring notification of a replaced listener");
+            return;
+        }
+
+        for (DataTreeModification<OuterList> change : changes) {
+            final OuterListKey key = change.getRootPath().getRootIdentifier().firstKeyOf(OuterList.class);
+            final int id;
+            try {
+                id = Integer.parseInt(key.getId());
+            } catch (NumberFormatException e) {
+                LOG.debug("Ignoring outer list {}", key.getId());
+                continue;
+            }
+            if (id == 0) {
+                continue;
+            }
+
+            if (change.getRootNode().getDataAfter() != null) {
+                ids.add(id);
+            } else {
+                ids.remove(id);
+            }
+            settle(id);
+        }
+
+        if (!ready) {
+            LOG.info("Outer list index ready, {} ids", ids.size());
+            ready = true;
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (registration != null) {
+            registration.close();
+            registration = null;
+        }
+        dataBroker = null;
+    }
+}
@@ -9,13 +9,18 @@
 package org.opendaylight.coretutorials.impl;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.concurrent.locks.Lock;
 import com.google.common.base.Optional;
 import com.google.common.util.concurrent.CheckedFuture;
-import com.google.common.util.concurrent.Monitor;
+import com.google.common.util.concurrent.Striped;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.ReadOnlyTransaction;
+import org.opendaylight.controller.md.sal.binding.api.TransactionFactory;
 import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
@@ -34,27 +39,29 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * This class ensures that reads can run concurrently but writes are semaphore protected via the guava monitor class
- * The semaphore is logically around the whole write/create logic as in actual implementations, decisions might be
- * made as a logical transaction so I have the semaphore at a logically higher layer (see doOper method below).
+ * This class ensures that reads can run concurrently but writes are protected by a lock on the outer list id, taken
+ * from a guava Striped set of locks. The lock is logically around the whole check-then-write logic as in actual
+ * implementations, decisions might be made as a logical transaction so I have the lock at a logically higher layer
+ * (see doOper method below). Creates and deletes of different ids usually take different locks and run in parallel;
+ * ids that hash to the same stripe are serialized, which is safe but not required.
  * Dscrudbenchmark calls dscrud from many concurrent threads emulating a jetty server for example where each jetty
  * thread will block on a dscrud RPC.
+ * The existence checks consult an OuterListIndex, and read the data store only for the ids the index has not settled.
  */
 public class SimpleTxCrudMonitor {
 
     private static final org.slf4j.Logger LOG = LoggerFactory.getLogger(SimpleTxCrudMonitor.class);
 
-    private DataBroker dataBroker;
-    private Monitor crudMonitor;
-    public int txOk, txError, verifyOk, verifyError;
+    private Striped<Lock> crudLocks;
+    private OuterListIndex index;
 
-    public SimpleTxCrudMonitor(DataBroker dataBroker, Monitor crudMonitor) {
+    public SimpleTxCrudMonitor(DataBroker dataBroker, Striped<Lock> crudLocks, OuterListIndex index) {
 
-        this.dataBroker = dataBroker;
-        this.crudMonitor = crudMonitor;
+        this.crudLocks = crudLocks;
+        this.index = index;
 
-        if (readOuterList(0) == null) {
-            createOuterList(0, 0);
+        if (readOuterList(dataBroker, 0) == null) {
+            createOuterList(dataBroker, 0, 0);
         }
 
         LOG.info("Created SimpletxCrud");
@@ -75,9 +82,9 @@ public class SimpleTxCrudMonitor {
         return innerList;
     }
 
-    private OuterList readOuterList(int j) {
+    private OuterList readOuterList(TransactionFactory txFactory, int j) {
 
-        ReadOnlyTransaction tx = dataBroker.newReadOnlyTransaction();
+        ReadOnlyTransaction tx = txFactory.newReadOnlyTransaction();
 
         InstanceIdentifier<OuterList> iid = InstanceIdentifier.create(TestExec.class)
                 .child(OuterList.class, new OuterListKey(String.valueOf( j )));
@@ -98,10 +105,10 @@ public class SimpleTxCrudMonitor {
         return outerList;
     }
 
-    private InnerList readInnerList(int j, int k) {
+    private InnerList readInnerList(TransactionFactory txFactory, int j, int k) {
 
 
-        ReadOnlyTransaction tx = dataBroker.newReadOnlyTransaction();
+        ReadOnlyTransaction tx = txFactory.newReadOnlyTransaction();
 
         InstanceIdentifier<InnerList> iid = InstanceIdentifier.create(TestExec.class)
                 .child(OuterList.class, new OuterListKey(String.valueOf(j)))
@@ -152,9 +159,25 @@ public class SimpleTxCrudMonitor {
         return innerList;
     }
 
-    private  void createOuterList(int j, int k) {
+    private boolean createOuterList(TransactionFactory txFactory, int j, int k) {
 
-        WriteTransaction tx = dataBroker.newWriteOnlyTransaction();
+        WriteTransaction tx = txFactory.newWriteOnlyTransaction();
+        putOuterList(tx, j, k);
+        //LOG.info("write: outer: {}, inner: {}", j, k);
+        if (k != 0) {
+            return submit(tx, Collections.singletonList(j));
+        }
+
+        // Replaces test-exec, which the index does not track per id
+        index.invalidateAll();
+        try {
+            return submit(tx, Collections.singletonList(j));
+        } finally {
+            index.relisten();
+        }
+    }
+
+    private void putOuterList(WriteTransaction tx, int j, int k) {
 
         InstanceIdentifier<OuterList> ol_iid;
         List<InnerList> innerListList;
@@ -191,20 +214,17 @@ public class SimpleTxCrudMonitor {
                     .child(InnerList.class, innerList.key());
             tx.put(LogicalDatastoreType.OPERATIONAL, il_iid, innerList);
         }
-        try {
-            tx.submit().checkedGet();
-            txOk++;
-        } catch (TransactionCommitFailedException e) {
-            LOG.error("Transaction failed: {}", e.toString());
-            txError++;
-        }
-        //LOG.info("write: outer: {}, inner: {}", j, k);
-
     }
 
-    private void deleteOuterList(int j) {
+    private boolean deleteOuterList(TransactionFactory txFactory, int j) {
 
-        WriteTransaction tx = dataBroker.newWriteOnlyTransaction();
+        WriteTransaction tx = txFactory.newWriteOnlyTransaction();
+        removeOuterList(tx, j);
+        //LOG.info("delete: outer: {}", j);
+        return submit(tx, Collections.singletonList(j));
+    }
+
+    private void removeOuterList(WriteTransaction tx, int j) {
 
         InstanceIdentifier<OuterList> ol_iid;
 
@@ -217,56 +237,236 @@ public class SimpleTxCrudMonitor {
                 .child(OuterList.class, new OuterListKey(String.valueOf(0)))
                 .child(InnerList.class, new InnerListKey(String.valueOf(j)));
         tx.delete(LogicalDatastoreType.OPERATIONAL, il_iid);
+    }
 
+    /**
+     * Submits a transaction that creates or deletes the given outer list ids.
+     */
+    private boolean submit(WriteTransaction tx, Collection<Integer> outerListIds) {
+        index.beforeCommit(outerListIds);
         try {
             tx.submit().checkedGet();
-            txOk++;
+            return true;
         } catch (TransactionCommitFailedException e) {
             LOG.error("Transaction failed: {}", e.toString());
-            txError++;
+            index.commitFailed(outerListIds);
+            return false;
         }
-        //LOG.info("delete: outer: {}", j);
+    }
 
+    private enum ResourceState {
+        ABSENT, PRESENT, PARTIAL
     }
 
+    /**
+     * Checks whether the id has both its outer list element and its inner list entry under outer list 0, neither
+     * of them, or only one of them.
+     */
+    private ResourceState readState(TransactionFactory txFactory, int j) {
+        if (index.isSettled(j)) {
+            return index.contains(j) ? ResourceState.PRESENT : ResourceState.ABSENT;
+        }
+        return toState(readOuterList(txFactory, j) != null, readInnerList(txFactory, 0, j) != null);
+    }
 
-    public void doOper(DoCrudInput.Operation oper, int outerListId, int numInnerListElements) {
+    private static ResourceState toState(boolean outer, boolean inner) {
+        return outer && inner ? ResourceState.PRESENT : !outer && !inner ? ResourceState.ABSENT : ResourceState.PARTIAL;
+    }
 
-        txOk = 0;
-        txError = 0;
-        verifyError = 0;
-        verifyOk = 0;
 
+    /**
+     * Performs one CRUD operation. The result belongs to this call only, so concurrent callers each get their own
+     * counts.
+     *
+     * @param txFactory allocates the transactions: the data broker for SIMPLE-TX, or the calling thread's
+     *                  transaction chain for TX-CHAINING
+     */
+    public CrudResult doOper(TransactionFactory txFactory, DoCrudInput.Operation oper, int outerListId, int numInnerListElements) {
+
+        int txOk = 0;
+        int txError = 0;
+
+        final Lock crudLock = crudLocks.get(outerListId);
         switch (oper) {
             case CREATE:
-                crudMonitor.enter();
+                crudLock.lock();
                 try {
-                    if (readInnerList(0, outerListId) == null && readOuterList(outerListId) == null) {
-                        createOuterList(outerListId, numInnerListElements);
+                    if (readState(txFactory, outerListId) == ResourceState.ABSENT) {
+                        if (createOuterList(txFactory, outerListId, numInnerListElements)) {
+                            txOk++;
+                        } else {
+                            txError++;
+                        }
                     } else {
                         LOG.error("CREATE: {} not found", outerListId);
                         txError++;
                     }
                 } finally {
-                    crudMonitor.leave();
+                    crudLock.unlock();
                 }
                 break;
             case READ:
-                readOuterList(outerListId);
+                readOuterList(txFactory, outerListId);
                 break;
             case DELETE:
-                crudMonitor.enter();
+                crudLock.lock();
                 try {
-                    if (readInnerList(0, outerListId) != null && readOuterList(outerListId) != null) {
-                        deleteOuterList(outerListId);
+                    if (readState(txFactory, outerListId) == ResourceState.PRESENT) {
+                        if (deleteOuterList(txFactory, outerListId)) {
+                            txOk++;
+                        } else {
+                            txError++;
+                        }
                     } else {
                         LOG.error("DELETE: {} not found", outerListId);
                         txError++;
                     }
                 } finally {
-                    crudMonitor.leave();
+                    crudLock.unlock();
                 }
                 break;
         }
+        return new CrudResult(txOk, txError, 0, 0);
+    }
+
+    /**
+     * Performs one CRUD operation on a list of outer list ids. The CREATEs or DELETEs are done batchSize ids at a time:
+     * the ids of a batch are locked, checked in a single read transaction, and those that pass the check are
+     * committed in one transaction before the locks are released. Only one batch is locked at a time, so a call holds
+     * at most batchSize of the lock stripes, and concurrent single-id calls on the other ids are not blocked by it. A
+     * READ only performs the check, for all ids in a single read transaction, always reading them from the data store.
+     */
+    public BatchResult doBatchOper(TransactionFactory txFactory, DoCrudInput.Operation oper, List<Integer> ids,
+            int numInnerListElements, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1: " + batchSize);
+        }
+        if (oper == DoCrudInput.Operation.CREATE && numInnerListElements < 1) {
+            // createOuterList treats 0 inner elements as a request to reset the test-exec container
+            throw new IllegalArgumentException("A batch CREATE needs at least one inner element");
+        }
+        final List<Integer> outerListIds = new ArrayList<>(new LinkedHashSet<>(ids));
+
+        final long startTime = System.nanoTime();
+        if (oper == DoCrudInput.Operation.READ) {
+            // The index only stands in for the CREATE and DELETE pre-checks; a READ measures the data store
+            int resources = 0;
+            for (ResourceState state : readStates(txFactory, outerListIds, false)) {
+                if (state == ResourceState.PRESENT) {
+                    resources++;
+                }
+            }
+            final long execTime = (System.nanoTime() - startTime) / 1000;
+            return new BatchResult(resources, outerListIds.size() - resources, 0, 0, execTime, new long[0]);
+        }
+
+        final ResourceState required = oper == DoCrudInput.Operation.CREATE
+                ? ResourceState.ABSENT : ResourceState.PRESENT;
+        int resources = 0;
+        int skipped = 0;
+        int txOk = 0;
+        int txError = 0;
+        final long[] batchLatency = new long[outerListIds.isEmpty() ? 0 : (outerListIds.size() - 1) / batchSize + 1];
+        int batches = 0;
+        for (int from = 0; from < outerListIds.size(); from += batchSize) {
+            final List<Integer> batchIds = outerListIds.subList(from, Math.min(outerListIds.size(), from + batchSize));
+
+            // Striped.bulkGet returns the locks in a fixed order, so concurrent batches cannot deadlock
+            final Iterable<Lock> locks = crudLocks.bulkGet(batchIds);
+            for (Lock lock : locks) {
+                lock.lock();
+            }
+            try {
+                final ResourceState[] states = readStates(txFactory, batchIds, true);
+                final List<Integer> batch = new ArrayList<>(batchIds.size());
+                for (int i = 0; i < states.length; i++) {
+                    if (states[i] == required) {
+                        batch.add(batchIds.get(i));
+                    } else {
+                        LOG.error("{}: {} is {}", oper, batchIds.get(i), states[i]);
+                        skipped++;
+                    }
+                }
+                if (batch.isEmpty()) {
+                    continue;
+                }
+
+                final long batchStart = System.nanoTime();
+                WriteTransaction tx = txFactory.newWriteOnlyTransaction();
+                for (int id : batch) {
+                    if (oper == DoCrudInput.Operation.CREATE) {
+                        putOuterList(tx, id, numInnerListElements);
+                    } else {
+                        removeOuterList(tx, id);
+                    }
+                }
+                final boolean ok = submit(tx, batch);
+                batchLatency[batches++] = (System.nanoTime() - batchStart) / 1000;
+                if (ok) {
+                    txOk++;
+                    resources += batch.size();
+                } else {
+                    txError++;
+                }
+            } finally {
+                for (Lock lock : locks) {
+                    lock.unlock();
+                }
+            }
+        }
+        final long execTime = (System.nanoTime() - startTime) / 1000;
+        return new BatchResult(resources, skipped, txOk, txError, execTime, Arrays.copyOf(batchLatency, batches));
+    }
+
+    /**
+     * Like readState for each id, with the reads in a single read transaction. With useIndex, only the ids the index
+     * has not settled are read; otherwise all ids are.
+     */
+    private ResourceState[] readStates(TransactionFactory txFactory, List<Integer> outerListIds, boolean useIndex) {
+        final ResourceState[] states = new ResourceState[outerListIds.size()];
+        final List<Integer> unsettled = new ArrayList<>();
+        for (int i = 0; i < states.length; i++) {
+            final int id = outerListIds.get(i);
+            if (useIndex && index.isSettled(id)) {
+                states[i] = index.contains(id) ? ResourceState.PRESENT : ResourceState.ABSENT;
+            } else {
+                unsettled.add(i);
+            }
+        }
+        if (unsettled.isEmpty()) {
+            return states;
+        }
+
+        final List<CheckedFuture<Optional<OuterList>, ReadFailedException>> outerReads =
+                new ArrayList<>(unsettled.size());
+        final List<CheckedFuture<Optional<InnerList>, ReadFailedException>> innerReads =
+                new ArrayList<>(unsettled.size());
+
+        ReadOnlyTransaction tx = txFactory.newReadOnlyTransaction();
+        try {
+            // Issue all reads before waiting for any of them
+            for (int i : unsettled) {
+                final int id = outerListIds.get(i);
+                outerReads.add(tx.read(LogicalDatastoreType.OPERATIONAL, InstanceIdentifier.create(TestExec.class)
+                        .child(OuterList.class, new OuterListKey(String.valueOf(id)))));
+                innerReads.add(tx.read(LogicalDatastoreType.OPERATIONAL, InstanceIdentifier.create(TestExec.class)
+                        .child(OuterList.class, new OuterListKey(String.valueOf(0)))
+                        .child(InnerList.class, new InnerListKey(String.valueOf(id)))));
+            }
+            for (int r = 0; r < unsettled.size(); r++) {
+                final String id = String.valueOf(outerListIds.get(unsettled.get(r)));
+                final boolean outer = outerReads.get(r).checkedGet().isPresent();
+                final Optional<InnerList> innerList = innerReads.get(r).checkedGet();
+                // Same check as readInnerList
+                final boolean inner = innerList.isPresent() && innerList.get().getId().contentEquals(id)
+                        && innerList.get().getValue().contentEquals(id);
+                states[unsettled.get(r)] = toState(outer, inner);
+            }
+        } catch (ReadFailedException e) {
+            throw new IllegalStateException("Batch read failed", e);
+        } finally {
+            tx.close();
+        }
+        return states;
     }
 }
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2015 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.coretutorials.impl;
+
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.opendaylight.controller.md.sal.binding.api.BindingTransactionChain;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.common.api.data.AsyncTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.TransactionChain;
+import org.opendaylight.controller.md.sal.common.api.data.TransactionChainListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps one transaction chain per calling thread, so that the CRUD calls a thread makes reuse its chain. The RPC
+ * runs in the caller's thread, so each emulated jetty thread gets its own chain, and its transactions never wait
+ * for those of other threads. A chain that failed is replaced by a new one on the thread's next call.
+ *
+ * Callers such as jetty's pool, or the executors of a benchmark, retire their threads over time. Whenever a chain
+ * is created, the chains of threads that have died are closed, so that there are never more open chains than
+ * calling threads that were alive at the last creation.
+ */
+public class ThreadTransactionChains implements TransactionChainListener, AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ThreadTransactionChains.class);
+
+    private final DataBroker dataBroker;
+    private final ThreadLocal<BindingTransactionChain> threadChain = new ThreadLocal<>();
+    // All open chains and the threads they belong to, so that they can be closed with their thread or the provider
+    private final Map<BindingTransactionChain, WeakReference<Thread>> chains = new ConcurrentHashMap<>();
+    private final Set<TransactionChain<?, ?>> failedChains = ConcurrentHashMap.newKeySet();
+
+    public ThreadTransactionChains(DataBroker dataBroker) {
+        this.dataBroker = dataBroker;
+    }
+
+    /**
+     * Returns the calling thread's transaction chain, creating it if the thread has none or its chain failed.
+     */
+    public BindingTransactionChain get() {
+        BindingTransactionChain chain = threadChain.get();
+        if (chain != null && failedChains.remove(chain)) {
+            LOG.info("Replacing failed transaction chain {}", chain);
+            discard(chain);
+            chain = null;
+        }
+        if (chain == null) {
+            closeDeadThreadChains();
+            chain = dataBroker.createTransactionChain(this);
+            chains.put(chain, new WeakReference<>(Thread.currentThread()));
+            threadChain.set(chain);
+        }
+        return chain;
+    }
+
+    /**
+     * Closes the chains whose thread has died; no one else uses them.
+     */
+    private void closeDeadThreadChains() {
+        final Iterator<Map.Entry<BindingTransactionChain, WeakReference<Thread>>> it = chains.entrySet().iterator();
+        while (it.hasNext()) {
+            final Map.Entry<BindingTransactionChain, WeakReference<Thread>> entry = it.next();
+            final Thread owner = entry.getValue().get();
+            if (owner == null || !owner.isAlive()) {
+                it.remove();
+                failedChains.remove(entry.getKey());
+                LOG.debug("Closing transaction chain {} of a dead thread", entry.getKey());
+                closeChain(entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Closes the calling thread's transaction chain, so that its next call starts a new one. Used after a call
+     * failed in a way that may have left the chain unusable.
+     */
+    public void reset() {
+        final BindingTransactionChain chain = threadChain.get();
+        if (chain != null) {
+            failedChains.remove(chain);
+            discard(chain);
+        }
+    }
+
+    private void discard(BindingTransactionChain chain) {
+        threadChain.remove();
+        chains.remove(chain);
+        closeChain(chain);
+    }
+
+    private static void closeChain(BindingTransactionChain chain) {
+        try {
+            chain.close();
+        } catch (IllegalStateException e) {
+            LOG.debug("Closing transaction chain {} failed", chain, e);
+        }
+    }
+
+    @Override
+    public void onTransactionChainFailed(TransactionChain<?, ?> chain, AsyncTransaction<?, ?> transaction,
+            Throwable cause) {
+        LOG.error("Broken chain {}, transaction {}, cause {}", chain, transaction.getIdentifier(), cause);
+        failedChains.add(chain);
+    }
+
+    @Override
+    public void onTransactionChainSuccessful(TransactionChain<?, ?> chain) {
+        LOG.debug("Chain {} closed successfully", chain);
+    }
+
+    @Override
+    public void close() {
+        for (BindingTransactionChain chain : chains.keySet()) {
+            closeChain(chain);
+        }
+        chains.clear();
+        failedChains.clear();
+    }
+}
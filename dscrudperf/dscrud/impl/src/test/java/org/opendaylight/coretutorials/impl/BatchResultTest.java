@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2015 Cisco Systems, and others and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.coretutorials.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class BatchResultTest {
+    @Test
+    public void testBatchLatencyNearestRank() {
+        final long[] latency = {50, 10, 40, 30, 20, 60, 100, 90, 80, 70};
+        BatchResult result = new BatchResult(10, 0, 10, 0, 1000, latency);
+
+        assertEquals(10, result.getBatches());
+        assertEquals(10, result.getBatchLatency(0));
+        assertEquals(10, result.getBatchLatency(10));
+        assertEquals(20, result.getBatchLatency(11));
+        assertEquals(50, result.getBatchLatency(50));
+        assertEquals(90, result.getBatchLatency(90));
+        assertEquals(100, result.getBatchLatency(99));
+        assertEquals(100, result.getBatchLatency(100));
+
+        // The caller's array is neither sorted nor kept
+        assertEquals(50, latency[0]);
+        latency[0] = 1000;
+        assertEquals(100, result.getBatchLatency(100));
+    }
+
+    @Test
+    public void testSingleAndNoBatches() {
+        BatchResult single = new BatchResult(1, 0, 1, 0, 100, new long[] {42});
+        assertEquals(42, single.getBatchLatency(50));
+        assertEquals(42, single.getBatchLatency(99));
+
+        BatchResult none = new BatchResult(0, 3, 0, 0, 100, new long[0]);
+        assertEquals(0, none.getBatches());
+        assertEquals(0, none.getBatchLatency(50));
+    }
+
+    @Test
+    public void testResourcesPerSec() {
+        assertEquals(2000, new BatchResult(1000, 0, 10, 0, 500000, new long[10]).getResourcesPerSec());
+        assertEquals(0, new BatchResult(1000, 0, 10, 0, 0, new long[10]).getResourcesPerSec());
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2015 Cisco Systems, and others and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.coretutorials.impl;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.opendaylight.controller.md.sal.binding.api.ClusteredDataTreeChangeListener;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.DataObjectModification;
+import org.opendaylight.controller.md.sal.binding.api.DataTreeIdentifier;
+import org.opendaylight.controller.md.sal.binding.api.DataTreeModification;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dscrud.rev150105.TestExec;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dscrud.rev150105.test.exec.OuterList;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dscrud.rev150105.test.exec.OuterListKey;
+import org.opendaylight.yangtools.concepts.ListenerRegistration;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+public class OuterListIndexTest {
+    @Test
+    public void testColdUntilFirstNotification() {
+        OuterListIndex index = new OuterListIndex();
+        assertFalse(index.isSettled(1));
+
+        index.onDataTreeChanged(Collections.singletonList(change(0, true)));
+        assertTrue(index.isSettled(1));
+        assertFalse(index.contains(1));
+        // outer list 0 is never indexed
+        assertFalse(index.isSettled(0));
+    }
+
+    @Test
+    public void testUnsettledUntilCommitNotified() {
+        OuterListIndex index = new OuterListIndex();
+        index.onDataTreeChanged(Collections.singletonList(change(0, true)));
+
+        index.beforeCommit(Collections.singletonList(1));
+        assertFalse(index.isSettled(1));
+        index.onDataTreeChanged(Collections.singletonList(change(1, true)));
+        assertTrue(index.isSettled(1));
+        assertTrue(index.contains(1));
+
+        index.beforeCommit(Collections.singletonList(1));
+        index.commitFailed(Collections.singletonList(1));
+        assertTrue(index.isSettled(1));
+        assertTrue(index.contains(1));
+
+        index.onDataTreeChanged(Collections.singletonList(change(1, false)));
+        assertFalse(index.contains(1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testUnsettledAfterTestExecReplaced() {
+        final DataBroker dataBroker = mock(DataBroker.class);
+        final ListenerRegistration<?> registration = mock(ListenerRegistration.class);
+        doReturn(registration).when(dataBroker).registerDataTreeChangeListener(any(DataTreeIdentifier.class),
+                any(ClusteredDataTreeChangeListener.class));
+
+        OuterListIndex index = new OuterListIndex();
+        index.register(dataBroker);
+        index.onDataTreeChanged(Collections.singletonList(change(1, true)));
+        assertTrue(index.isSettled(1));
+        assertTrue(index.contains(1));
+
+        // cleanup-store replaces test-exec, which removes outer list 1
+        index.invalidateAll();
+        verify(registration).close();
+        assertFalse(index.isSettled(1));
+        assertFalse(index.isSettled(2));
+        index.relisten();
+
+        final ArgumentCaptor<ClusteredDataTreeChangeListener<OuterList>> listeners =
+                ArgumentCaptor.forClass(ClusteredDataTreeChangeListener.class);
+        verify(dataBroker, times(2)).registerDataTreeChangeListener(any(DataTreeIdentifier.class),
+                listeners.capture());
+        final List<ClusteredDataTreeChangeListener<OuterList>> registered = listeners.getAllValues();
+
+        // A late notification of the replaced listener neither settles nor changes the index
+        registered.get(0).onDataTreeChanged(Collections.singletonList(change(2, true)));
+        assertFalse(index.isSettled(1));
+        assertFalse(index.isSettled(2));
+
+        // The new listener's first notification holds the outer lists that exist after the cleanup
+        registered.get(1).onDataTreeChanged(Collections.singletonList(change(0, true)));
+        assertTrue(index.isSettled(1));
+        assertFalse(index.contains(1));
+        assertTrue(index.isSettled(2));
+        assertFalse(index.contains(2));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static DataTreeModification<OuterList> change(int id, boolean exists) {
+        final OuterListKey key = new OuterListKey(String.valueOf(id));
+        final DataObjectModification<OuterList> node = mock(DataObjectModification.class);
+        when(node.getDataAfter()).thenReturn(exists ? mock(OuterList.class) : null);
+
+        final DataTreeModification<OuterList> change = mock(DataTreeModification.class);
+        when(change.getRootPath()).thenReturn(new DataTreeIdentifier<>(LogicalDatastoreType.OPERATIONAL,
+                InstanceIdentifier.create(TestExec.class).child(OuterList.class, key)));
+        when(change.getRootNode()).thenReturn(node);
+        return change;
+    }
+}
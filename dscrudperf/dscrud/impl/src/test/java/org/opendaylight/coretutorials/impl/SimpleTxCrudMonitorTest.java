@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2015 Cisco Systems, and others and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.coretutorials.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.base.Optional;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.Striped;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.DataObjectModification;
+import org.opendaylight.controller.md.sal.binding.api.DataTreeIdentifier;
+import org.opendaylight.controller.md.sal.binding.api.DataTreeModification;
+import org.opendaylight.controller.md.sal.binding.api.ReadOnlyTransaction;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dscrud.rev150105.DoCrudInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dscrud.rev150105.TestExec;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dscrud.rev150105.test.exec.OuterList;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dscrud.rev150105.test.exec.OuterListKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dscrud.rev150105.test.exec.outer.list.InnerList;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dscrud.rev150105.test.exec.outer.list.InnerListBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dscrud.rev150105.test.exec.outer.list.InnerListKey;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+public class SimpleTxCrudMonitorTest {
+    // Outer list ids that exist in the mocked data store
+    private final Set<Integer> stored = new HashSet<>();
+    private final Striped<Lock> crudLocks = Striped.lock(1024);
+    private final OuterListIndex index = new OuterListIndex();
+    private DataBroker dataBroker;
+    private ReadOnlyTransaction readTx;
+    private WriteTransaction writeTx;
+    private SimpleTxCrudMonitor monitor;
+
+    @Before
+    public void setUp() {
+        dataBroker = mock(DataBroker.class);
+        readTx = mock(ReadOnlyTransaction.class);
+        writeTx = mock(WriteTransaction.class);
+        when(dataBroker.newReadOnlyTransaction()).thenReturn(readTx);
+        when(dataBroker.newWriteOnlyTransaction()).thenReturn(writeTx);
+        doAnswer(invocation -> read(invocation.getArgument(1))).when(readTx)
+                .read(any(LogicalDatastoreType.class), any(InstanceIdentifier.class));
+        doReturn(Futures.immediateCheckedFuture(null)).when(writeTx).submit();
+
+        monitor = new SimpleTxCrudMonitor(dataBroker, crudLocks, index);
+        // Forget the creation of outer list 0
+        clearInvocations(dataBroker, readTx, writeTx);
+    }
+
+    private Object read(InstanceIdentifier<?> iid) {
+        if (iid.getTargetType() == InnerList.class) {
+            final String id = iid.firstKeyOf(InnerList.class).getId();
+            return Futures.immediateCheckedFuture(stored.contains(Integer.valueOf(id))
+                    ? Optional.of(new InnerListBuilder().withKey(new InnerListKey(id)).setId(id).setValue(id).build())
+                    : Optional.absent());
+        }
+        final int id = Integer.parseInt(iid.firstKeyOf(OuterList.class).getId());
+        return Futures.immediateCheckedFuture(stored.contains(id) ? Optional.of(mock(OuterList.class))
+                : Optional.absent());
+    }
+
+    @Test
+    public void testBatchCreate() {
+        BatchResult result = monitor.doBatchOper(dataBroker, DoCrudInput.Operation.CREATE,
+                Arrays.asList(1, 2, 3, 2, 4, 5), 1, 2);
+
+        // The duplicate id is dropped, and the 5 ids are committed in batches of 2
+        assertEquals(5, result.getResources());
+        assertEquals(0, result.getSkipped());
+        assertEquals(3, result.getTxOk());
+        assertEquals(0, result.getTxError());
+        assertEquals(3, result.getBatches());
+        verify(writeTx, times(3)).submit();
+    }
+
+    @Test
+    public void testBatchDeleteSkipsAbsentIds() {
+        stored.addAll(Arrays.asList(1, 3));
+        BatchResult result = monitor.doBatchOper(dataBroker, DoCrudInput.Operation.DELETE,
+                Arrays.asList(1, 2, 3, 4), 1, 2);
+
+        assertEquals(2, result.getResources());
+        assertEquals(2, result.getSkipped());
+        assertEquals(2, result.getTxOk());
+        assertEquals(2, result.getBatches());
+    }
+
+    @Test
+    public void testBatchWithoutEligibleIdsCommitsNothing() {
+        stored.addAll(Arrays.asList(1, 2));
+        BatchResult result = monitor.doBatchOper(dataBroker, DoCrudInput.Operation.CREATE,
+                Arrays.asList(1, 2), 1, 10);
+
+        assertEquals(0, result.getResources());
+        assertEquals(2, result.getSkipped());
+        assertEquals(0, result.getBatches());
+        assertEquals(0, result.getBatchLatency(99));
+        verify(writeTx, never()).submit();
+    }
+
+    @Test
+    public void testFailedBatchCommit() {
+        doReturn(Futures.immediateFailedCheckedFuture(new TransactionCommitFailedException("test")))
+                .when(writeTx).submit();
+        BatchResult result = monitor.doBatchOper(dataBroker, DoCrudInput.Operation.CREATE,
+                Arrays.asList(1, 2, 3), 1, 2);
+
+        assertEquals(0, result.getResources());
+        assertEquals(0, result.getTxOk());
+        assertEquals(2, result.getTxError());
+        assertEquals(2, result.getBatches());
+        // The failed ids are no longer pending, so they are settled once the index is ready
+        index.onDataTreeChanged(Collections.singletonList(change(99)));
+        assertTrue(index.isSettled(1));
+        assertTrue(index.isSettled(2));
+    }
+
+    @Test
+    public void testBatchReadReadsTheDataStore() {
+        stored.addAll(Arrays.asList(1, 2));
+        // The index has settled all ids, and believes none of them exists
+        index.onDataTreeChanged(Collections.singletonList(change(99)));
+
+        BatchResult result = monitor.doBatchOper(dataBroker, DoCrudInput.Operation.READ,
+                Arrays.asList(1, 2, 3), 1, 2);
+
+        assertEquals(2, result.getResources());
+        assertEquals(1, result.getSkipped());
+        assertEquals(0, result.getBatches());
+        // All ids in one read transaction, both the outer list element and the inner list entry of each
+        verify(dataBroker, times(1)).newReadOnlyTransaction();
+        verify(dataBroker, never()).newWriteOnlyTransaction();
+        verify(readTx, times(6)).read(any(LogicalDatastoreType.class), any(InstanceIdentifier.class));
+    }
+
+    @Test
+    public void testOnlyTheCommittedBatchIsLocked() {
+        final List<List<Integer>> batches = Arrays.asList(Arrays.asList(1, 2), Arrays.asList(3, 4),
+                Arrays.asList(5));
+        final List<Integer> ids = new ArrayList<>();
+        batches.forEach(ids::addAll);
+        final List<Boolean> lockedAsExpected = new ArrayList<>();
+        doAnswer(invocation -> {
+            final List<Integer> batch = batches.get(lockedAsExpected.size());
+            final Set<Lock> batchLocks = new HashSet<>();
+            crudLocks.bulkGet(batch).forEach(batchLocks::add);
+            boolean expected = true;
+            for (int id : ids) {
+                final Lock lock = crudLocks.get(id);
+                // Ids of other batches are only held if they share a stripe with this batch
+                expected &= ((ReentrantLock) lock).isHeldByCurrentThread() == batchLocks.contains(lock);
+            }
+            lockedAsExpected.add(expected);
+            return Futures.immediateCheckedFuture(null);
+        }).when(writeTx).submit();
+
+        BatchResult result = monitor.doBatchOper(dataBroker, DoCrudInput.Operation.CREATE, ids, 1, 2);
+
+        assertEquals(3, result.getTxOk());
+        assertEquals(Arrays.asList(true, true, true), lockedAsExpected);
+        for (int id : ids) {
+            assertFalse(((ReentrantLock) crudLocks.get(id)).isHeldByCurrentThread());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroBatchSize() {
+        monitor.doBatchOper(dataBroker, DoCrudInput.Operation.CREATE, Arrays.asList(1), 1, 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static DataTreeModification<OuterList> change(int id) {
+        final DataObjectModification<OuterList> node = mock(DataObjectModification.class);
+        when(node.getDataAfter()).thenReturn(mock(OuterList.class));
+
+        final DataTreeModification<OuterList> change = mock(DataTreeModification.class);
+        when(change.getRootPath()).thenReturn(new DataTreeIdentifier<>(LogicalDatastoreType.OPERATIONAL,
+                InstanceIdentifier.create(TestExec.class).child(OuterList.class, new OuterListKey(String.valueOf(id)))));
+        when(change.getRootNode()).thenReturn(node);
+        return change;
+    }
+}
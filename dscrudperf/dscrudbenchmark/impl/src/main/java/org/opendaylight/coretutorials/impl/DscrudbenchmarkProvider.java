@@ -15,6 +15,7 @@ import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
 import org.opendaylight.controller.sal.binding.api.BindingAwareBroker.ProviderContext;
 import org.opendaylight.controller.sal.binding.api.BindingAwareProvider;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dscrud.rev150105.DoCrudInput;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dscrud.rev150105.DscrudService;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dscrudbenchmark.rev150105.DscrudbenchmarkService;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.dscrudbenchmark.rev150105.RpcCrudTestInput;
@@ -60,9 +61,13 @@ public class DscrudbenchmarkProvider implements DscrudbenchmarkService, BindingA
         numThreads = input.getNumThreads();
         if (numThreads <= 0) numThreads = 1;
 
-        LOG.info("Test started: numResources: {} numThreads: {}",
-                numResources, numThreads);
-        PerfCrudRpc perfCrudRpc = new PerfCrudRpc(dscrudService);
+        final DoCrudInput.TransactionType txType =
+                input.getTransactionType() == RpcCrudTestInput.TransactionType.TXCHAINING
+                        ? DoCrudInput.TransactionType.TXCHAINING : DoCrudInput.TransactionType.SIMPLETX;
+
+        LOG.info("Test started: numResources: {} numThreads: {} transactionType: {}",
+                numResources, numThreads, txType);
+        PerfCrudRpc perfCrudRpc = new PerfCrudRpc(dscrudService, txType);
         boolean status = perfCrudRpc.runPerfTest((int) numResources, (int) numThreads);
 
         output = new RpcCrudTestOutputBuilder()
@@ -27,6 +27,7 @@ public class PerfCrudRpc {
 
     private static final Logger LOG = LoggerFactory.getLogger(PerfCrudRpc.class);
     private DscrudService dscrudService;
+    private final DoCrudInput.TransactionType txType;
     public long createsPerSec, retrievesPerSec, crudsPerSec, deletesPerSec;
     private ExecutorService executor;
     private Integer nextQueueId = 0;
@@ -44,8 +45,9 @@ public class PerfCrudRpc {
         ++numComplete;
     }
 
-    public PerfCrudRpc(DscrudService dscrudService) {
+    public PerfCrudRpc(DscrudService dscrudService, DoCrudInput.TransactionType txType) {
         this.dscrudService = dscrudService;
+        this.txType = txType;
         executor = null;
     }
 
@@ -153,6 +155,7 @@ public class PerfCrudRpc {
 
         DoCrudInput input = new DoCrudInputBuilder()
                 .setOperation(DoCrudInput.Operation.CREATE)
+                .setTransactionType(txType)
                 .setOuterElementId((long)resourceId)
                 .setInnerElements((long)innerElements)
                 .build();
@@ -176,6 +179,7 @@ public class PerfCrudRpc {
     private boolean retrieveOneTest(Integer resourceId) {
         DoCrudInput input = new DoCrudInputBuilder()
                 .setOperation(DoCrudInput.Operation.READ)
+                .setTransactionType(txType)
                 .setOuterElementId((long)resourceId)
                 .setInnerElements((long)innerElements)
                 .build();
@@ -238,6 +242,7 @@ public class PerfCrudRpc {
     private boolean deleteOneTest(Integer resourceId) {
         DoCrudInput input = new DoCrudInputBuilder()
                 .setOperation(DoCrudInput.Operation.DELETE)
+                .setTransactionType(txType)
                 .setOuterElementId((long)resourceId)
                 .setInnerElements((long)innerElements)
                 .build();